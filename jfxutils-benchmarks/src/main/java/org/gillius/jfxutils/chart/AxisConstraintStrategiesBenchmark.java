@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link AxisConstraintStrategies}, which are consulted on every mouse press and
+ * mouse wheel event, for contexts in each area of the chart.
+ *
+ * @author Jason Winnebeck
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class AxisConstraintStrategiesBenchmark {
+	private static final ChartInputContext[] contexts = {
+			new FixedContext( false, false, true ),
+			new FixedContext( true, false, false ),
+			new FixedContext( false, true, false ),
+			new FixedContext( false, false, false ),
+	};
+
+	private final AxisConstraintStrategy defaultStrategy = AxisConstraintStrategies.getDefault();
+	private final AxisConstraintStrategy ignoreOutsideChart = AxisConstraintStrategies.getIgnoreOutsideChart();
+	private final AxisConstraintStrategy fixed = AxisConstraintStrategies.getFixed( AxisConstraint.Both );
+
+	@Benchmark
+	public void defaultStrategy( Blackhole bh ) {
+		for ( ChartInputContext context : contexts ) {
+			bh.consume( defaultStrategy.getConstraint( context ) );
+		}
+	}
+
+	@Benchmark
+	public void ignoreOutsideChart( Blackhole bh ) {
+		for ( ChartInputContext context : contexts ) {
+			bh.consume( ignoreOutsideChart.getConstraint( context ) );
+		}
+	}
+
+	@Benchmark
+	public void fixed( Blackhole bh ) {
+		for ( ChartInputContext context : contexts ) {
+			bh.consume( fixed.getConstraint( context ) );
+		}
+	}
+
+	private static class FixedContext implements ChartInputContext {
+		private final boolean inXAxis;
+		private final boolean inYAxis;
+		private final boolean inPlotArea;
+
+		private FixedContext( boolean inXAxis, boolean inYAxis, boolean inPlotArea ) {
+			this.inXAxis = inXAxis;
+			this.inYAxis = inYAxis;
+			this.inPlotArea = inPlotArea;
+		}
+
+		@Override
+		public boolean isInXAxis() {
+			return inXAxis;
+		}
+
+		@Override
+		public boolean isInYAxis() {
+			return inYAxis;
+		}
+
+		@Override
+		public boolean isInPlotArea() {
+			return inPlotArea;
+		}
+	}
+}
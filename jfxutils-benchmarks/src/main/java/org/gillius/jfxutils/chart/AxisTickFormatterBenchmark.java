@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks formatting a full set of major tick labels with {@link DefaultAxisTickFormatter} and
+ * {@link FixedFormatTickFormatter}, as {@link StableTicksAxis} does on each range change.
+ *
+ * @author Jason Winnebeck
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class AxisTickFormatterBenchmark {
+	@Param( { "3.7", "12345.0", "2.3E11" } )
+	public double delta;
+
+	private final DefaultAxisTickFormatter defaultFormatter = new DefaultAxisTickFormatter();
+	private final FixedFormatTickFormatter fixedFormatter =
+			new FixedFormatTickFormatter( new DecimalFormat( "0.###E0" ) );
+
+	private Number[] ticks;
+
+	@Setup
+	public void setup() {
+		double low = -delta / 3.0;
+		double tickSpacing = StableTicksAxis.calculateTickSpacing( delta, 10 );
+		List<Number> majorTicks = new ArrayList<Number>();
+		StableTicksAxis.calculateTicks( low, low + delta, tickSpacing, majorTicks, new ArrayList<Number>() );
+		ticks = majorTicks.toArray( new Number[majorTicks.size()] );
+
+		defaultFormatter.setRange( low, low + delta, tickSpacing );
+		fixedFormatter.setRange( low, low + delta, tickSpacing );
+	}
+
+	@Benchmark
+	public void defaultFormatter( Blackhole bh ) {
+		for ( Number tick : ticks ) {
+			bh.consume( defaultFormatter.format( tick ) );
+		}
+	}
+
+	@Benchmark
+	public void fixedFormatter( Blackhole bh ) {
+		for ( Number tick : ticks ) {
+			bh.consume( fixedFormatter.format( tick ) );
+		}
+	}
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.ValueAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.StackPane;
+import javafx.scene.shape.Rectangle;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * ChartFrameTimeHarness measures the per-pulse cost of JavaFX layout and rendering while a scripted
+ * {@link ChartZoomManager} or {@link ChartPanManager} gesture runs on a large chart, which
+ * microbenchmarks cannot show. It is a plain main program rather than a JMH benchmark because it
+ * must run on the FX thread driven by the pulse.
+ * <p>
+ * Each pulse, an {@link AnimationTimer} injects the next step of the gesture as synthetic mouse or
+ * scroll events, and the scene's pre and post layout pulse listeners time the CSS and layout pass.
+ * The interval between pulses is reported as the frame time, which includes rendering as the FX
+ * thread waits for the previous frame to be rendered before it starts the next pulse. The harness
+ * sets javafx.animation.fullspeed so that pulses are not capped at 60 per second, unless it is set
+ * on the command line. The 50th, 90th and 99th percentiles are printed at the end.
+ * <p>
+ * It runs without a display using the Monocle headless platform, which is included in the
+ * benchmarks jar:
+ * <pre>
+java -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw \
+     -cp jfxutils-benchmarks/target/benchmarks.jar org.gillius.jfxutils.chart.ChartFrameTimeHarness \
+     --gesture pan --series 4 --points 100000</pre>
+ * Options, with their defaults:
+ * <ul>
+ *   <li>--gesture pan: one of pan, wheel or box (an animated box zoom, repeated)</li>
+ *   <li>--series 4: number of series</li>
+ *   <li>--points 10000: number of points in each series</li>
+ *   <li>--axis stable: stable for {@link StableTicksAxis} or number for {@link NumberAxis}</li>
+ *   <li>--symbols false: whether the chart creates a symbol node for each point</li>
+ *   <li>--warmup 200: pulses run before measuring</li>
+ *   <li>--frames 1000: pulses measured</li>
+ *   <li>--width 1280, --height 720: scene size</li>
+ * </ul>
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartFrameTimeHarness {
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	private String gesture = "pan";
+	private int seriesCount = 4;
+	private int pointCount = 10000;
+	private String axisType = "stable";
+	private boolean symbols = false;
+	private int warmupFrames = 200;
+	private int measuredFrames = 1000;
+	private double width = 1280;
+	private double height = 720;
+
+	private LineChart<Number, Number> chart;
+	private StackPane chartPane;
+	private ChartZoomManager zoomManager;
+	private GestureScript script;
+
+	private final CountDownLatch done = new CountDownLatch( 1 );
+
+	private long[] layoutNanos;
+	private long[] frameNanos;
+	private long[] inputNanos;
+	private int frame = 0;
+	private long lastPulseNanos = 0;
+	private long layoutStartNanos;
+
+	/**
+	 * Number of measured frames in which the X axis bounds changed since the previous pulse, either
+	 * by the script step or by an animation, to check that the gesture actually reaches the managers.
+	 */
+	private int boundsChangedFrames = 0;
+	private double lastXLower = Double.NaN;
+	private double lastXUpper = Double.NaN;
+
+	public static void main( String[] args ) throws Exception {
+		if ( System.getProperty( "javafx.animation.fullspeed" ) == null )
+			System.setProperty( "javafx.animation.fullspeed", "true" );
+
+		ChartFrameTimeHarness harness = new ChartFrameTimeHarness();
+		harness.parseArgs( args );
+		harness.run();
+	}
+
+	private void parseArgs( String[] args ) {
+		for ( int i = 0; i + 1 < args.length; i += 2 ) {
+			String name = args[i];
+			String value = args[i + 1];
+			if ( "--gesture".equals( name ) )
+				gesture = value;
+			else if ( "--series".equals( name ) )
+				seriesCount = Integer.parseInt( value );
+			else if ( "--points".equals( name ) )
+				pointCount = Integer.parseInt( value );
+			else if ( "--axis".equals( name ) )
+				axisType = value;
+			else if ( "--symbols".equals( name ) )
+				symbols = Boolean.parseBoolean( value );
+			else if ( "--warmup".equals( name ) )
+				warmupFrames = Integer.parseInt( value );
+			else if ( "--frames".equals( name ) )
+				measuredFrames = Integer.parseInt( value );
+			else if ( "--width".equals( name ) )
+				width = Double.parseDouble( value );
+			else if ( "--height".equals( name ) )
+				height = Double.parseDouble( value );
+			else
+				throw new IllegalArgumentException( "Unknown option " + name );
+		}
+		if ( args.length % 2 != 0 )
+			throw new IllegalArgumentException( "Missing value for " + args[args.length - 1] );
+
+		layoutNanos = new long[measuredFrames];
+		frameNanos = new long[measuredFrames];
+		inputNanos = new long[measuredFrames];
+	}
+
+	private void run() throws InterruptedException {
+		Platform.startup( new Runnable() {
+			@Override
+			public void run() {
+				start();
+			}
+		} );
+		done.await();
+		Platform.exit();
+		report();
+	}
+
+	private void start() {
+		chart = new LineChart<Number, Number>( createAxis(), createAxis() );
+		chart.setAnimated( false );
+		chart.setCreateSymbols( symbols );
+		chart.setLegendVisible( false );
+
+		Random random = new Random( 1234 );
+		for ( int s = 0; s < seriesCount; ++s ) {
+			List<XYChart.Data<Number, Number>> data = new ArrayList<XYChart.Data<Number, Number>>( pointCount );
+			double y = 0.0;
+			for ( int i = 0; i < pointCount; ++i ) {
+				y += random.nextGaussian();
+				data.add( new XYChart.Data<Number, Number>( i, y + s * 100.0 ) );
+			}
+			XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+			series.getData().setAll( data );
+			chart.getData().add( series );
+		}
+
+		Rectangle selectRect = new Rectangle( 0, 0, 0, 0 );
+		selectRect.setMouseTransparent( true );
+		selectRect.setOpacity( 0.3 );
+		StackPane.setAlignment( selectRect, Pos.TOP_LEFT );
+		chartPane = new StackPane( chart, selectRect );
+
+		zoomManager = new ChartZoomManager( chartPane, selectRect, chart );
+		zoomManager.start();
+
+		ChartPanManager panManager = new ChartPanManager( chart );
+		panManager.setMouseFilter( new EventHandler<MouseEvent>() {
+			@Override
+			public void handle( MouseEvent mouseEvent ) {
+				if ( mouseEvent.getButton() != MouseButton.SECONDARY )
+					mouseEvent.consume();
+			}
+		} );
+		panManager.start();
+
+		if ( "pan".equals( gesture ) )
+			script = new PanScript();
+		else if ( "wheel".equals( gesture ) )
+			script = new WheelScript();
+		else if ( "box".equals( gesture ) )
+			script = new BoxZoomScript();
+		else
+			throw new IllegalArgumentException( "Unknown gesture " + gesture );
+
+		Scene scene = new Scene( chartPane, width, height );
+		scene.addPreLayoutPulseListener( new Runnable() {
+			@Override
+			public void run() {
+				layoutStartNanos = System.nanoTime();
+			}
+		} );
+		scene.addPostLayoutPulseListener( new Runnable() {
+			@Override
+			public void run() {
+				int index = frame - warmupFrames - 1;
+				if ( index >= 0 && index < measuredFrames )
+					layoutNanos[index] = System.nanoTime() - layoutStartNanos;
+			}
+		} );
+
+		Stage stage = new Stage();
+		stage.setScene( scene );
+		stage.show();
+
+		new AnimationTimer() {
+			@Override
+			public void handle( long now ) {
+				int index = frame - warmupFrames;
+				if ( index >= measuredFrames ) {
+					stop();
+					done.countDown();
+					return;
+				}
+
+				if ( index >= 0 && lastPulseNanos != 0 )
+					frameNanos[index] = now - lastPulseNanos;
+				lastPulseNanos = now;
+
+				long start = System.nanoTime();
+				script.step( frame );
+				if ( index >= 0 )
+					inputNanos[index] = System.nanoTime() - start;
+
+				ValueAxis<Number> xAxis = (ValueAxis<Number>) chart.getXAxis();
+				//noinspection FloatingPointEquality
+				if ( index >= 0 && ( xAxis.getLowerBound() != lastXLower ||
+				                     xAxis.getUpperBound() != lastXUpper ) )
+					++boundsChangedFrames;
+				lastXLower = xAxis.getLowerBound();
+				lastXUpper = xAxis.getUpperBound();
+
+				++frame;
+			}
+		}.start();
+	}
+
+	private ValueAxis<Number> createAxis() {
+		if ( "stable".equals( axisType ) )
+			return new StableTicksAxis();
+		else if ( "number".equals( axisType ) )
+			return new NumberAxis();
+		else
+			throw new IllegalArgumentException( "Unknown axis " + axisType );
+	}
+
+	private void report() {
+		System.out.printf( Locale.ROOT, "gesture=%s series=%d points=%d axis=%s symbols=%b frames=%d%n",
+		                   gesture, seriesCount, pointCount, axisType, symbols, measuredFrames );
+		System.out.printf( Locale.ROOT, "%-8s %10s %10s %10s %10s %10s%n",
+		                   "(ms)", "mean", "p50", "p90", "p99", "max" );
+		printStats( "input", inputNanos );
+		printStats( "layout", layoutNanos );
+		//The first measured frame has no previous pulse to measure from
+		printStats( "frame", Arrays.copyOfRange( frameNanos, 1, frameNanos.length ) );
+		System.out.printf( Locale.ROOT, "X bounds changed in %d of %d measured frames%n",
+		                   boundsChangedFrames, measuredFrames );
+		if ( boundsChangedFrames == 0 )
+			System.out.println( "WARNING: the gesture did not change the X bounds, so the chart was idle" );
+	}
+
+	private static void printStats( String name, long[] values ) {
+		if ( values.length == 0 )
+			return;
+
+		long[] sorted = values.clone();
+		Arrays.sort( sorted );
+		double sum = 0.0;
+		for ( long value : sorted ) {
+			sum += value;
+		}
+		System.out.printf( Locale.ROOT, "%-8s %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+		                   name,
+		                   sum / sorted.length / NANOS_PER_MILLI,
+		                   percentile( sorted, 0.50 ) / NANOS_PER_MILLI,
+		                   percentile( sorted, 0.90 ) / NANOS_PER_MILLI,
+		                   percentile( sorted, 0.99 ) / NANOS_PER_MILLI,
+		                   sorted[sorted.length - 1] / NANOS_PER_MILLI );
+	}
+
+	private static long percentile( long[] sorted, double p ) {
+		int index = (int) Math.ceil( p * sorted.length ) - 1;
+		return sorted[Math.max( 0, Math.min( sorted.length - 1, index ) )];
+	}
+
+	private double getPlotCenterX() {
+		Rectangle2D plotArea = new XYChartInfo( chart, chartPane ).getPlotArea();
+		return plotArea.getMinX() + plotArea.getWidth() / 2.0;
+	}
+
+	private double getPlotCenterY() {
+		Rectangle2D plotArea = new XYChartInfo( chart, chartPane ).getPlotArea();
+		return plotArea.getMinY() + plotArea.getHeight() / 2.0;
+	}
+
+	private void fireMouse( Node target, javafx.event.EventType<MouseEvent> type, MouseButton button,
+	                        double x, double y ) {
+		boolean down = type != MouseEvent.MOUSE_RELEASED;
+		Event.fireEvent( target, new MouseEvent(
+				type, x, y, x, y, button, 1,
+				false, false, false, false,
+				down && button == MouseButton.PRIMARY, false, down && button == MouseButton.SECONDARY,
+				false, false, false, null ) );
+	}
+
+	/**
+	 * A gesture that injects events on each pulse.
+	 */
+	private interface GestureScript {
+		void step( int frame );
+	}
+
+	/**
+	 * Pans with the secondary button, moving back and forth along a circle so the view stays near the
+	 * data.
+	 */
+	private class PanScript implements GestureScript {
+		private double centerX;
+		private double centerY;
+
+		@Override
+		public void step( int frame ) {
+			if ( frame == 0 ) {
+				centerX = getPlotCenterX();
+				centerY = getPlotCenterY();
+				fireMouse( chart, MouseEvent.MOUSE_PRESSED, MouseButton.SECONDARY, centerX, centerY );
+				//ChartPanManager only starts panning on DRAG_DETECTED
+				fireMouse( chart, MouseEvent.DRAG_DETECTED, MouseButton.SECONDARY, centerX, centerY );
+			} else {
+				double angle = frame * 0.05;
+				fireMouse( chart, MouseEvent.MOUSE_DRAGGED, MouseButton.SECONDARY,
+				           centerX + Math.cos( angle ) * 100.0, centerY + Math.sin( angle ) * 100.0 );
+			}
+		}
+	}
+
+	/**
+	 * Rolls the mouse wheel over the center of the plot, 20 ticks in and then 20 ticks out.
+	 */
+	private class WheelScript implements GestureScript {
+		@Override
+		public void step( int frame ) {
+			double deltaY = ( frame / 20 ) % 2 == 0 ? 40.0 : -40.0;
+			double x = getPlotCenterX();
+			double y = getPlotCenterY();
+			Event.fireEvent( chartPane, new ScrollEvent(
+					ScrollEvent.SCROLL, x, y, x, y,
+					false, false, false, false, false, false,
+					0.0, deltaY, 0.0, deltaY,
+					ScrollEvent.HorizontalTextScrollUnits.NONE, 0.0,
+					ScrollEvent.VerticalTextScrollUnits.NONE, 0.0,
+					0, null ) );
+		}
+	}
+
+	/**
+	 * Drags a zoom box over 10 pulses and releases it, then restores the original bounds once the
+	 * animated zoom settles, and repeats.
+	 */
+	private class BoxZoomScript implements GestureScript {
+		private static final int dragFrames = 10;
+
+		private int cycleStart = 0;
+		private boolean zooming = false;
+		private boolean settled = false;
+
+		private double xLower;
+		private double xUpper;
+		private double yLower;
+		private double yUpper;
+
+		private BoxZoomScript() {
+			zoomManager.addViewportHandler( new EventHandler<ViewportEvent>() {
+				@Override
+				public void handle( ViewportEvent event ) {
+					if ( event.getEventType() == ViewportEvent.VIEWPORT_SETTLED )
+						settled = true;
+				}
+			} );
+		}
+
+		@Override
+		public void step( int frame ) {
+			ValueAxis<Number> xAxis = (ValueAxis<Number>) chart.getXAxis();
+			ValueAxis<Number> yAxis = (ValueAxis<Number>) chart.getYAxis();
+			if ( frame == 0 ) {
+				xLower = xAxis.getLowerBound();
+				xUpper = xAxis.getUpperBound();
+				yLower = yAxis.getLowerBound();
+				yUpper = yAxis.getUpperBound();
+			}
+
+			if ( zooming ) {
+				if ( settled ) {
+					zooming = false;
+					xAxis.setLowerBound( xLower );
+					xAxis.setUpperBound( xUpper );
+					yAxis.setLowerBound( yLower );
+					yAxis.setUpperBound( yUpper );
+					cycleStart = frame + 1;
+				}
+				return;
+			}
+
+			double x = getPlotCenterX() - 100.0;
+			double y = getPlotCenterY() - 80.0;
+			int step = frame - cycleStart;
+			if ( step == 0 ) {
+				fireMouse( chartPane, MouseEvent.MOUSE_PRESSED, MouseButton.PRIMARY, x, y );
+				fireMouse( chartPane, MouseEvent.DRAG_DETECTED, MouseButton.PRIMARY, x, y );
+			} else if ( step <= dragFrames ) {
+				double fraction = step / (double) dragFrames;
+				fireMouse( chartPane, MouseEvent.MOUSE_DRAGGED, MouseButton.PRIMARY,
+				           x + 200.0 * fraction, y + 160.0 * fraction );
+			} else {
+				fireMouse( chartPane, MouseEvent.MOUSE_RELEASED, MouseButton.PRIMARY, x + 200.0, y + 160.0 );
+				settled = false;
+				zooming = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the tick math of {@link StableTicksAxis}, which runs on every layout of an axis whose
+ * range changed, so once per pulse while zooming or panning.
+ *
+ * @author Jason Winnebeck
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class StableTicksAxisBenchmark {
+	/**
+	 * Axis range (upper - lower bound).
+	 */
+	@Param( { "1.0E-9", "3.7", "12345.0", "2.3E11" } )
+	public double delta;
+
+	/**
+	 * Maximum number of major ticks, as computed from the axis length and label size.
+	 */
+	@Param( { "5", "20" } )
+	public int maxTicks;
+
+	private double low;
+	private double tickSpacing;
+
+	private final List<Number> majorTicks = new ArrayList<Number>();
+	private final List<Number> minorTicks = new ArrayList<Number>();
+
+	@Setup
+	public void setup() {
+		low = -delta / 3.0;
+		tickSpacing = StableTicksAxis.calculateTickSpacing( delta, maxTicks );
+	}
+
+	@Benchmark
+	public double calculateTickSpacing() {
+		return StableTicksAxis.calculateTickSpacing( delta, maxTicks );
+	}
+
+	@Benchmark
+	public void calculateTicks( Blackhole bh ) {
+		majorTicks.clear();
+		minorTicks.clear();
+		StableTicksAxis.calculateTicks( low, low + delta, tickSpacing, majorTicks, minorTicks );
+		bh.consume( majorTicks );
+		bh.consume( minorTicks );
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.application.Platform;
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.layout.StackPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the coordinate transforms of {@link XYChartInfo}, which run on every mouse event
+ * handled by the zoom and pan managers. The chart is laid out once on the FX thread; the transforms
+ * only read the laid out scene graph. This requires a working JavaFX platform (a display, or
+ * Monocle with -Dglass.platform=Monocle -Dmonocle.platform=Headless).
+ *
+ * @author Jason Winnebeck
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class XYChartInfoBenchmark {
+	private XYChartInfo chartInfo;
+	private XYChartInfo ancestorChartInfo;
+	private double x;
+	private double y;
+
+	@Setup
+	public void setup() throws Exception {
+		try {
+			Platform.startup( new Runnable() {
+				@Override
+				public void run() {
+				}
+			} );
+		} catch ( IllegalStateException ignored ) {
+			//Already started
+		}
+
+		FutureTask<Void> task = new FutureTask<Void>( new Callable<Void>() {
+			@Override
+			public Void call() {
+				LineChart<Number, Number> chart = new LineChart<Number, Number>(
+						new StableTicksAxis( 0, 100 ), new StableTicksAxis( -1, 1 ) );
+				XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+				for ( int i = 0; i <= 100; ++i ) {
+					series.getData().add( new XYChart.Data<Number, Number>( i, Math.sin( i / 10.0 ) ) );
+				}
+				chart.getData().add( series );
+
+				StackPane root = new StackPane( chart );
+				Scene scene = new Scene( root, 800, 600 );
+				root.applyCss();
+				root.layout();
+
+				chartInfo = new XYChartInfo( chart );
+				ancestorChartInfo = new XYChartInfo( chart, root );
+				Rectangle2D plotArea = chartInfo.getPlotArea();
+				x = plotArea.getMinX() + plotArea.getWidth() / 3.0;
+				y = plotArea.getMinY() + plotArea.getHeight() / 3.0;
+				return null;
+			}
+		} );
+		Platform.runLater( task );
+		task.get();
+	}
+
+	@Benchmark
+	public Point2D getDataCoordinates() {
+		return chartInfo.getDataCoordinates( x, y );
+	}
+
+	@Benchmark
+	public Rectangle2D getDataCoordinatesRect() {
+		return chartInfo.getDataCoordinates( x, y, x + 100, y + 100 );
+	}
+
+	@Benchmark
+	public Point2D getDataCoordinatesFromAncestor() {
+		return ancestorChartInfo.getDataCoordinates( x, y );
+	}
+
+	@Benchmark
+	public boolean isInPlotArea() {
+		return chartInfo.isInPlotArea( x, y );
+	}
+
+	@Benchmark
+	public Rectangle2D getXAxisArea() {
+		return chartInfo.getXAxisArea();
+	}
+}
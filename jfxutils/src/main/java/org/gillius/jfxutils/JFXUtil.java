@@ -16,13 +16,21 @@
 
 package org.gillius.jfxutils;
 
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.scene.CacheHint;
 import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
 
 /**
  * JFXUtil contains JavaFX utility methods used in the Gillius jfxutils project.
@@ -143,6 +151,23 @@ public class JFXUtil {
 	 *         w, h, and override parameters.
 	 */
 	public static StackPane createScalePane( Region region, double w, double h, boolean override ) {
+		return createScalePane( region, w, h, override, ScalePaneResizeMode.Quality, 0.0 );
+	}
+
+	/**
+	 * Creates a "Scale Pane" like {@link #createScalePane(Region, double, double, boolean)}, which
+	 * renders its content in the given mode while it is being resized. Scaling a complex GUI, such as
+	 * one full of dense charts, re-renders all of it on each frame of a window resize. With the
+	 * {@link ScalePaneResizeMode#Cache Cache} or {@link ScalePaneResizeMode#Snapshot Snapshot} modes a
+	 * bitmap is scaled instead, and full quality rendering is restored once the size has not changed
+	 * for idleMillis.
+	 *
+	 * @param resizeMode how to render the content during a resize
+	 * @param idleMillis time in milliseconds without a size change after which the resize is
+	 *                   considered finished
+	 */
+	public static StackPane createScalePane( Region region, double w, double h, boolean override,
+	                                         ScalePaneResizeMode resizeMode, double idleMillis ) {
 		//If the Region containing the GUI does not already have a preferred width and height, set it.
 		//But, if it does, we can use that setting as the "standard" resolution.
 		if ( override || region.getPrefWidth() == Region.USE_COMPUTED_SIZE )
@@ -170,6 +195,89 @@ public class JFXUtil {
 		group.scaleXProperty().bind( ret.widthProperty().divide( w ) );
 		group.scaleYProperty().bind( ret.heightProperty().divide( h ) );
 
+		if ( resizeMode != ScalePaneResizeMode.Quality ) {
+			ScalePaneResizeHandler handler = new ScalePaneResizeHandler( ret, group, region, resizeMode, idleMillis );
+			ret.widthProperty().addListener( handler );
+			ret.heightProperty().addListener( handler );
+		}
+
 		return ret;
 	}
+
+	/**
+	 * Switches a scale pane to a cached or snapshot rendering when its size changes, and back once
+	 * the size has been stable for the idle time.
+	 */
+	private static class ScalePaneResizeHandler implements InvalidationListener {
+		private final StackPane pane;
+		private final Group group;
+		private final Region region;
+		private final ScalePaneResizeMode mode;
+		private final PauseTransition idle;
+
+		private boolean resizing = false;
+		private boolean wasCache;
+		private CacheHint oldCacheHint;
+		private ImageView snapshotView;
+
+		private ScalePaneResizeHandler( StackPane pane, Group group, Region region, ScalePaneResizeMode mode,
+		                                double idleMillis ) {
+			this.pane = pane;
+			this.group = group;
+			this.region = region;
+			this.mode = mode;
+			idle = new PauseTransition( Duration.millis( idleMillis ) );
+			idle.setOnFinished( new EventHandler<ActionEvent>() {
+				@Override
+				public void handle( ActionEvent event ) {
+					endResize();
+				}
+			} );
+		}
+
+		@Override
+		public void invalidated( Observable observable ) {
+			//Ignore the initial sizing and changes while not displayed
+			if ( pane.getScene() == null || region.getWidth() <= 0.0 || region.getHeight() <= 0.0 )
+				return;
+
+			if ( !resizing )
+				startResize();
+			idle.playFromStart();
+		}
+
+		private void startResize() {
+			resizing = true;
+			if ( mode == ScalePaneResizeMode.Cache ) {
+				wasCache = group.isCache();
+				oldCacheHint = group.getCacheHint();
+				group.setCache( true );
+				group.setCacheHint( CacheHint.SCALE );
+
+			} else {
+				snapshotView = new ImageView( region.snapshot( null, null ) );
+				snapshotView.setManaged( false );
+				snapshotView.setPreserveRatio( false );
+				snapshotView.fitWidthProperty().bind( pane.widthProperty() );
+				snapshotView.fitHeightProperty().bind( pane.heightProperty() );
+				group.setVisible( false );
+				pane.getChildren().add( snapshotView );
+			}
+		}
+
+		private void endResize() {
+			resizing = false;
+			if ( mode == ScalePaneResizeMode.Cache ) {
+				group.setCacheHint( oldCacheHint );
+				group.setCache( wasCache );
+
+			} else {
+				pane.getChildren().remove( snapshotView );
+				snapshotView.fitWidthProperty().unbind();
+				snapshotView.fitHeightProperty().unbind();
+				snapshotView = null;
+				group.setVisible( true );
+			}
+		}
+	}
 }
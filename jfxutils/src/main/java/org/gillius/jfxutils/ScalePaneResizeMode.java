@@ -0,0 +1,39 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils;
+
+/**
+ * How a scale pane created by
+ * {@link JFXUtil#createScalePane(javafx.scene.layout.Region, double, double, boolean, ScalePaneResizeMode, double)}
+ * renders its content while it is being resized.
+ */
+public enum ScalePaneResizeMode {
+	/**
+	 * Render the content at full quality on every frame of the resize.
+	 */
+	Quality,
+	/**
+	 * Cache the content as a bitmap with {@link javafx.scene.CacheHint#SCALE} and scale the bitmap
+	 * during the resize.
+	 */
+	Cache,
+	/**
+	 * Replace the content with a snapshot image during the resize, which is scaled instead of the
+	 * content.
+	 */
+	Snapshot
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * StreamingPngWriter writes a PNG image row by row, so that images much larger than the available
+ * memory can be written as long as their rows are produced in order. Pixels are given as ARGB ints
+ * (such as from {@link javafx.scene.image.PixelFormat#getIntArgbInstance()}) and written as 8-bit
+ * non-premultiplied RGBA, with the PNG "Sub" filter on each row. Compressed data is written in IDAT
+ * chunks of a bounded size as it is produced, so memory use does not depend on the image size.
+ * <p>
+ * The writer is not thread safe.
+ *
+ * @author Jason Winnebeck
+ */
+public class StreamingPngWriter implements Closeable {
+	private static final byte[] SIGNATURE = { (byte) 137, 80, 78, 71, 13, 10, 26, 10 };
+
+	private static final int IDAT_SIZE = 64 * 1024;
+
+	private static final byte FILTER_SUB = 1;
+
+	private final OutputStream out;
+	private final int width;
+	private final int height;
+
+	private final Deflater deflater;
+	private final byte[] row;
+	private final byte[] idat = new byte[IDAT_SIZE];
+	private int idatLength = 0;
+	private final CRC32 crc = new CRC32();
+
+	private int rowsWritten = 0;
+	private boolean closed = false;
+
+	/**
+	 * Creates a writer with the default compression level, and writes the PNG header.
+	 */
+	public StreamingPngWriter( OutputStream out, int width, int height ) throws IOException {
+		this( out, width, height, Deflater.DEFAULT_COMPRESSION );
+	}
+
+	/**
+	 * Creates a writer and writes the PNG header.
+	 *
+	 * @param out              stream to write to, which is closed by {@link #close()}
+	 * @param compressionLevel {@link Deflater} compression level, 0 to 9 or -1 for the default
+	 */
+	public StreamingPngWriter( OutputStream out, int width, int height, int compressionLevel )
+			throws IOException {
+		if ( width <= 0 || height <= 0 )
+			throw new IllegalArgumentException( "width and height must be positive" );
+		if ( width > ( Integer.MAX_VALUE - 1 ) / 4 )
+			throw new IllegalArgumentException( "width is too large" );
+
+		this.out = out;
+		this.width = width;
+		this.height = height;
+		deflater = new Deflater( compressionLevel );
+		row = new byte[1 + width * 4];
+
+		out.write( SIGNATURE );
+		byte[] header = new byte[13];
+		putInt( header, 0, width );
+		putInt( header, 4, height );
+		header[8] = 8; //bit depth
+		header[9] = 6; //color type RGBA
+		header[10] = 0; //deflate compression
+		header[11] = 0; //adaptive filtering
+		header[12] = 0; //no interlace
+		writeChunk( "IHDR", header, header.length );
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the number of rows written so far.
+	 */
+	public int getRowsWritten() {
+		return rowsWritten;
+	}
+
+	/**
+	 * Writes the next rows of the image.
+	 *
+	 * @param argb           pixels as ARGB ints
+	 * @param offset         index in argb of the first pixel of the first row
+	 * @param scanlineStride distance in argb between the start of consecutive rows
+	 * @param rows           number of rows to write
+	 */
+	public void writeRows( int[] argb, int offset, int scanlineStride, int rows ) throws IOException {
+		if ( closed )
+			throw new IllegalStateException( "Writer is closed" );
+		if ( rows < 0 || rowsWritten + rows > height )
+			throw new IllegalArgumentException( "Too many rows for image height " + height );
+
+		for ( int r = 0; r < rows; ++r ) {
+			int index = offset + r * scanlineStride;
+			row[0] = FILTER_SUB;
+			int prev = 0;
+			for ( int x = 0, i = 1; x < width; ++x, i += 4 ) {
+				int pixel = argb[index + x];
+				row[i] = (byte) ( ( pixel >> 16 ) - ( prev >> 16 ) );
+				row[i + 1] = (byte) ( ( pixel >> 8 ) - ( prev >> 8 ) );
+				row[i + 2] = (byte) ( pixel - prev );
+				row[i + 3] = (byte) ( ( pixel >>> 24 ) - ( prev >>> 24 ) );
+				prev = pixel;
+			}
+			deflater.setInput( row );
+			while ( !deflater.needsInput() ) {
+				deflate();
+			}
+			++rowsWritten;
+		}
+	}
+
+	/**
+	 * Finishes the image and closes the stream. All rows must have been written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if ( closed )
+			return;
+		closed = true;
+
+		try {
+			if ( rowsWritten != height )
+				throw new IllegalStateException( "Only " + rowsWritten + " of " + height + " rows written" );
+
+			deflater.finish();
+			while ( !deflater.finished() ) {
+				deflate();
+			}
+			flushIdat();
+			writeChunk( "IEND", idat, 0 );
+		} finally {
+			deflater.end();
+			out.close();
+		}
+	}
+
+	private void deflate() throws IOException {
+		idatLength += deflater.deflate( idat, idatLength, idat.length - idatLength );
+		if ( idatLength == idat.length )
+			flushIdat();
+	}
+
+	private void flushIdat() throws IOException {
+		if ( idatLength > 0 ) {
+			writeChunk( "IDAT", idat, idatLength );
+			idatLength = 0;
+		}
+	}
+
+	private void writeChunk( String type, byte[] data, int length ) throws IOException {
+		byte[] typeBytes = type.getBytes( StandardCharsets.US_ASCII );
+		byte[] buf = new byte[4];
+
+		putInt( buf, 0, length );
+		out.write( buf );
+
+		crc.reset();
+		crc.update( typeBytes );
+		crc.update( data, 0, length );
+		out.write( typeBytes );
+		out.write( data, 0, length );
+
+		putInt( buf, 0, (int) crc.getValue() );
+		out.write( buf );
+	}
+
+	private static void putInt( byte[] buf, int offset, int value ) {
+		buf[offset] = (byte) ( value >>> 24 );
+		buf[offset + 1] = (byte) ( value >>> 16 );
+		buf[offset + 2] = (byte) ( value >>> 8 );
+		buf[offset + 3] = (byte) value;
+	}
+}
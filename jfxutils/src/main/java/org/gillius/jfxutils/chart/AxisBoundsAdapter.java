@@ -0,0 +1,39 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.scene.chart.Axis;
+
+/**
+ * Provides the lower and upper bounds of an {@link Axis} as numeric properties, in the axis's
+ * numeric value space as defined by {@link Axis#toNumericValue(Object)}. Setting a property sets the
+ * axis bound, and changes to the axis bound are reflected in the property.
+ *
+ * @see AxisBoundsAdapters
+ */
+public interface AxisBoundsAdapter {
+	/**
+	 * Returns the lower bound of the axis.
+	 */
+	DoubleProperty lowerBoundProperty();
+
+	/**
+	 * Returns the upper bound of the axis.
+	 */
+	DoubleProperty upperBoundProperty();
+}
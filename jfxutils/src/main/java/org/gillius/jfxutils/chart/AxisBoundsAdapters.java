@@ -0,0 +1,252 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.ValueAxis;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AxisBoundsAdapters finds the {@link AxisBoundsAdapter} for an axis.
+ * <ul>
+ *   <li>Adapters from factories added with {@link #register(Class, Factory)} are used first, most
+ *       recently registered first. This allows custom axes (date or category-like axes, for
+ *       example) to expose their bounds cheaply.</li>
+ *   <li>A {@link ValueAxis} uses its own lowerBound and upperBound properties directly.</li>
+ *   <li>Other axes are supported if they have public lowerBoundProperty() and upperBoundProperty()
+ *       methods returning a {@link Property}. The methods are resolved once per axis class as
+ *       {@link MethodHandle}s, and the axis values are converted with
+ *       {@link Axis#toNumericValue(Object)} and {@link Axis#toRealValue(double)}. A reentrancy guard
+ *       breaks the feedback loop between the numeric and real properties, so no listeners are
+ *       added or removed as the values change.</li>
+ * </ul>
+ * The adapter created for an axis is stored in the axis's properties, so each axis has at most one
+ * adapter, shared by all users such as {@link ChartZoomManager} and {@link ChartZoomHistory}.
+ *
+ * @author Jason Winnebeck
+ */
+public class AxisBoundsAdapters {
+	/**
+	 * Creates {@link AxisBoundsAdapter}s for a type of axis.
+	 */
+	public interface Factory {
+		/**
+		 * Returns the adapter for the axis, or null if this factory does not support it.
+		 */
+		AxisBoundsAdapter create( Axis<?> axis );
+	}
+
+	private static final Object ADAPTER_KEY = AxisBoundsAdapter.class;
+
+	private static final List<Registration> factories = new ArrayList<Registration>();
+
+	private static final ClassValue<MethodHandle[]> boundAccessors = new ClassValue<MethodHandle[]>() {
+		@Override
+		protected MethodHandle[] computeValue( Class<?> type ) {
+			MethodHandle lower = findPropertyAccessor( type, "lowerBoundProperty" );
+			MethodHandle upper = findPropertyAccessor( type, "upperBoundProperty" );
+			return lower == null || upper == null ? null : new MethodHandle[] { lower, upper };
+		}
+	};
+
+	/**
+	 * Registers a factory for axes of the given type (including subclasses). Must be called on the
+	 * JavaFX thread, before creating the managers that use the axes.
+	 */
+	public static void register( Class<?> axisType, Factory factory ) {
+		factories.add( 0, new Registration( axisType, factory ) );
+	}
+
+	/**
+	 * Returns the adapter for the axis, creating it on first use, or null if the axis type is not
+	 * supported.
+	 */
+	public static AxisBoundsAdapter forAxis( Axis<?> axis ) {
+		Object existing = axis.getProperties().get( ADAPTER_KEY );
+		if ( existing instanceof AxisBoundsAdapter )
+			return (AxisBoundsAdapter) existing;
+
+		AxisBoundsAdapter ret = create( axis );
+		if ( ret != null )
+			axis.getProperties().put( ADAPTER_KEY, ret );
+		return ret;
+	}
+
+	private static AxisBoundsAdapter create( Axis<?> axis ) {
+		for ( Registration registration : factories ) {
+			if ( registration.axisType.isInstance( axis ) ) {
+				AxisBoundsAdapter ret = registration.factory.create( axis );
+				if ( ret != null )
+					return ret;
+			}
+		}
+
+		if ( axis instanceof ValueAxis )
+			return new ValueAxisBoundsAdapter( (ValueAxis<?>) axis );
+
+		MethodHandle[] accessors = boundAccessors.get( axis.getClass() );
+		if ( accessors == null )
+			return null;
+
+		Property<?> lower = invokeAccessor( accessors[0], axis );
+		Property<?> upper = invokeAccessor( accessors[1], axis );
+		if ( lower == null || upper == null )
+			return null;
+
+		return new BridgedAxisBoundsAdapter( createBridge( axis, lower ), createBridge( axis, upper ) );
+	}
+
+	private static MethodHandle findPropertyAccessor( Class<?> type, String name ) {
+		try {
+			Method method = type.getMethod( name );
+			if ( !Property.class.isAssignableFrom( method.getReturnType() ) )
+				return null;
+			return MethodHandles.publicLookup().unreflect( method );
+		} catch ( NoSuchMethodException | IllegalAccessException ignored ) {
+			return null;
+		}
+	}
+
+	private static Property<?> invokeAccessor( MethodHandle accessor, Axis<?> axis ) {
+		try {
+			Object result = accessor.invoke( axis );
+			return result instanceof Property ? (Property<?>) result : null;
+		} catch ( Throwable ignored ) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static <T> DoubleProperty createBridge( Axis<T> axis, Property<?> property ) {
+		return new BridgedBoundProperty<T>( axis, (Property<T>) property );
+	}
+
+	private static class Registration {
+		private final Class<?> axisType;
+		private final Factory factory;
+
+		private Registration( Class<?> axisType, Factory factory ) {
+			this.axisType = axisType;
+			this.factory = factory;
+		}
+	}
+
+	private static class ValueAxisBoundsAdapter implements AxisBoundsAdapter {
+		private final ValueAxis<?> axis;
+
+		private ValueAxisBoundsAdapter( ValueAxis<?> axis ) {
+			this.axis = axis;
+		}
+
+		@Override
+		public DoubleProperty lowerBoundProperty() {
+			return axis.lowerBoundProperty();
+		}
+
+		@Override
+		public DoubleProperty upperBoundProperty() {
+			return axis.upperBoundProperty();
+		}
+	}
+
+	private static class BridgedAxisBoundsAdapter implements AxisBoundsAdapter {
+		private final DoubleProperty lowerBound;
+		private final DoubleProperty upperBound;
+
+		private BridgedAxisBoundsAdapter( DoubleProperty lowerBound, DoubleProperty upperBound ) {
+			this.lowerBound = lowerBound;
+			this.upperBound = upperBound;
+		}
+
+		@Override
+		public DoubleProperty lowerBoundProperty() {
+			return lowerBound;
+		}
+
+		@Override
+		public DoubleProperty upperBoundProperty() {
+			return upperBound;
+		}
+	}
+
+	/**
+	 * A numeric property kept in sync with an axis property of the axis's real value type. The axis
+	 * property keeps this object alive through the listener.
+	 */
+	private static class BridgedBoundProperty<T> extends SimpleDoubleProperty implements ChangeListener<T> {
+		private final Axis<T> axis;
+		private final Property<T> property;
+
+		/**
+		 * True while one side is being updated from the other.
+		 */
+		private boolean updating = false;
+
+		private BridgedBoundProperty( Axis<T> axis, Property<T> property ) {
+			this.axis = axis;
+			this.property = property;
+
+			T value = property.getValue();
+			if ( value != null ) {
+				updating = true;
+				try {
+					set( axis.toNumericValue( value ) );
+				} finally {
+					updating = false;
+				}
+			}
+
+			property.addListener( this );
+		}
+
+		@Override
+		protected void invalidated() {
+			if ( updating )
+				return;
+
+			updating = true;
+			try {
+				property.setValue( axis.toRealValue( get() ) );
+			} finally {
+				updating = false;
+			}
+		}
+
+		@Override
+		public void changed( ObservableValue<? extends T> observable, T oldValue, T newValue ) {
+			if ( updating )
+				return;
+
+			updating = true;
+			try {
+				set( axis.toNumericValue( newValue ) );
+			} finally {
+				updating = false;
+			}
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.chart.ValueAxis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AxisGroup keeps the bounds of a set of {@link ValueAxis} synchronized, for example the time axes
+ * of many stacked charts. The group has its own lower and upper bound properties. Setting them
+ * pushes the value to every member in a single pass. A change made directly to a member (for
+ * example by auto ranging) is copied to the group and then pushed to the other members.
+ * Re-entrant updates are suppressed, so a change never cascades back through the members the way
+ * chained bindings or listeners do. As JavaFX coalesces layout requests, each member's chart is
+ * laid out once in the next pulse.
+ * <p>
+ * The {@link ChartZoomManager} and {@link ChartPanManager} understand groups via their
+ * setXAxisGroup and setYAxisGroup methods. When a group is set, they compute the new bounds once
+ * and apply them through the group instead of through their own axis.
+ * <p>
+ * Members that receive bounds from the group have auto ranging turned off.
+ *
+ * @author Jason Winnebeck
+ */
+public class AxisGroup {
+	private final List<ValueAxis<?>> axes = new ArrayList<ValueAxis<?>>();
+
+	private final DoubleProperty lowerBound = new SimpleDoubleProperty( this, "lowerBound" ) {
+		@Override
+		protected void invalidated() {
+			if ( !batching )
+				push( null, true, false );
+		}
+	};
+
+	private final DoubleProperty upperBound = new SimpleDoubleProperty( this, "upperBound" ) {
+		@Override
+		protected void invalidated() {
+			if ( !batching )
+				push( null, false, true );
+		}
+	};
+
+	private final InvalidationListener memberListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			if ( !pushing )
+				pull( (ValueAxis<?>) ( (ReadOnlyProperty<?>) observable ).getBean() );
+		}
+	};
+
+	/**
+	 * True while the group's own properties are being set together, to push once at the end.
+	 */
+	private boolean batching = false;
+
+	/**
+	 * True while the group is setting member bounds, to ignore the resulting member changes.
+	 */
+	private boolean pushing = false;
+
+	/**
+	 * Creates a group with the given members. The group starts with the bounds of the first member,
+	 * if any, and pushes them to the others.
+	 */
+	public AxisGroup( ValueAxis<?>... axes ) {
+		for ( ValueAxis<?> axis : axes ) {
+			add( axis );
+		}
+	}
+
+	/**
+	 * Adds an axis to the group. If this is the first member, the group takes its bounds, otherwise
+	 * the axis takes the group's bounds.
+	 */
+	public void add( ValueAxis<?> axis ) {
+		if ( axes.contains( axis ) )
+			return;
+
+		if ( axes.isEmpty() ) {
+			batching = true;
+			try {
+				lowerBound.set( axis.getLowerBound() );
+				upperBound.set( axis.getUpperBound() );
+			} finally {
+				batching = false;
+			}
+		} else {
+			pushing = true;
+			try {
+				apply( axis, true, true );
+			} finally {
+				pushing = false;
+			}
+		}
+
+		axes.add( axis );
+		axis.lowerBoundProperty().addListener( memberListener );
+		axis.upperBoundProperty().addListener( memberListener );
+	}
+
+	/**
+	 * Removes an axis from the group. Its bounds are left unchanged.
+	 */
+	public void remove( ValueAxis<?> axis ) {
+		if ( axes.remove( axis ) ) {
+			axis.lowerBoundProperty().removeListener( memberListener );
+			axis.upperBoundProperty().removeListener( memberListener );
+		}
+	}
+
+	/**
+	 * Returns an unmodifiable view of the members of the group.
+	 */
+	public List<ValueAxis<?>> getAxes() {
+		return Collections.unmodifiableList( axes );
+	}
+
+	/**
+	 * Returns true if the axis is a member of this group.
+	 */
+	public boolean contains( ValueAxis<?> axis ) {
+		return axes.contains( axis );
+	}
+
+	public double getLowerBound() {
+		return lowerBound.get();
+	}
+
+	/**
+	 * The lower bound of all members. Setting it sets the lower bound of each member.
+	 */
+	public DoubleProperty lowerBoundProperty() {
+		return lowerBound;
+	}
+
+	public void setLowerBound( double lowerBound ) {
+		this.lowerBound.set( lowerBound );
+	}
+
+	public double getUpperBound() {
+		return upperBound.get();
+	}
+
+	/**
+	 * The upper bound of all members. Setting it sets the upper bound of each member.
+	 */
+	public DoubleProperty upperBoundProperty() {
+		return upperBound;
+	}
+
+	public void setUpperBound( double upperBound ) {
+		this.upperBound.set( upperBound );
+	}
+
+	/**
+	 * Sets both bounds and pushes them to all members in a single pass.
+	 */
+	public void setRange( double lowerBound, double upperBound ) {
+		batching = true;
+		try {
+			this.lowerBound.set( lowerBound );
+			this.upperBound.set( upperBound );
+		} finally {
+			batching = false;
+		}
+		push( null, true, true );
+	}
+
+	private void pull( ValueAxis<?> source ) {
+		batching = true;
+		try {
+			lowerBound.set( source.getLowerBound() );
+			upperBound.set( source.getUpperBound() );
+		} finally {
+			batching = false;
+		}
+		push( source, true, true );
+	}
+
+	private void push( ValueAxis<?> except, boolean lower, boolean upper ) {
+		if ( pushing )
+			return;
+
+		pushing = true;
+		try {
+			for ( ValueAxis<?> axis : axes ) {
+				if ( axis != except )
+					apply( axis, lower, upper );
+			}
+		} finally {
+			pushing = false;
+		}
+	}
+
+	private void apply( ValueAxis<?> axis, boolean lower, boolean upper ) {
+		axis.setAutoRanging( false );
+		if ( lower )
+			axis.setLowerBound( lowerBound.get() );
+		if ( upper )
+			axis.setUpperBound( upperBound.get() );
+	}
+}
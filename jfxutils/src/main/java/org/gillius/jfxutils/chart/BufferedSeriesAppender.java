@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * BufferedSeriesAppender appends data to an {@link XYChart.Series} while an "active" condition is
+ * true, and buffers it while the condition is false, for example while the chart's tab is not
+ * selected ({@link org.gillius.jfxutils.tab.LazyTabContent#activeProperty()}). When the condition
+ * becomes true again, the buffered data is added to the series in a single
+ * {@link javafx.collections.ObservableList#addAll(Collection)} call, so the chart processes one
+ * change and lays out once instead of once per point. The buffer can be limited with
+ * {@link #setMaxBufferedCount(int)}, so that a series that stays inactive does not buffer without
+ * bound.
+ * <p>
+ * All methods must be called on the JavaFX application thread.
+ *
+ * @author Jason Winnebeck
+ */
+public class BufferedSeriesAppender<X, Y> {
+	private final XYChart.Series<X, Y> series;
+	private final ObservableBooleanValue active;
+
+	private final Deque<XYChart.Data<X, Y>> buffer = new ArrayDeque<XYChart.Data<X, Y>>();
+
+	private int maxBufferedCount = Integer.MAX_VALUE;
+
+	private final ChangeListener<Boolean> activeListener = new ChangeListener<Boolean>() {
+		@Override
+		public void changed( ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue ) {
+			if ( newValue )
+				flush();
+		}
+	};
+
+	/**
+	 * Creates an appender for the series, which buffers while active is false.
+	 */
+	public BufferedSeriesAppender( XYChart.Series<X, Y> series, ObservableBooleanValue active ) {
+		this.series = series;
+		this.active = active;
+		active.addListener( activeListener );
+	}
+
+	public XYChart.Series<X, Y> getSeries() {
+		return series;
+	}
+
+	/**
+	 * Returns the number of data items waiting to be added to the series.
+	 */
+	public int getBufferedCount() {
+		return buffer.size();
+	}
+
+	public int getMaxBufferedCount() {
+		return maxBufferedCount;
+	}
+
+	/**
+	 * Sets the most data items kept in the buffer. When more are buffered, the oldest are discarded.
+	 * The default is no limit.
+	 *
+	 * @throws IllegalArgumentException if maxBufferedCount is negative
+	 */
+	public void setMaxBufferedCount( int maxBufferedCount ) {
+		if ( maxBufferedCount < 0 )
+			throw new IllegalArgumentException( "maxBufferedCount must not be negative" );
+		this.maxBufferedCount = maxBufferedCount;
+		trimBuffer();
+	}
+
+	/**
+	 * Appends a point to the series, or buffers it if not active.
+	 */
+	public void append( X x, Y y ) {
+		append( new XYChart.Data<X, Y>( x, y ) );
+	}
+
+	/**
+	 * Appends a data item to the series, or buffers it if not active.
+	 */
+	public void append( XYChart.Data<X, Y> data ) {
+		if ( active.get() )
+			series.getData().add( data );
+		else {
+			buffer.add( data );
+			trimBuffer();
+		}
+	}
+
+	/**
+	 * Appends data items to the series in one change, or buffers them if not active.
+	 */
+	public void appendAll( Collection<? extends XYChart.Data<X, Y>> data ) {
+		if ( active.get() )
+			series.getData().addAll( data );
+		else {
+			buffer.addAll( data );
+			trimBuffer();
+		}
+	}
+
+	/**
+	 * Adds all buffered data to the series in one change. This is done automatically when the
+	 * active condition becomes true.
+	 */
+	public void flush() {
+		if ( buffer.isEmpty() )
+			return;
+
+		List<XYChart.Data<X, Y>> pending = new ArrayList<XYChart.Data<X, Y>>( buffer );
+		buffer.clear();
+		series.getData().addAll( pending );
+	}
+
+	/**
+	 * Discards the buffered data without adding it to the series.
+	 */
+	public void clearBuffer() {
+		buffer.clear();
+	}
+
+	private void trimBuffer() {
+		while ( buffer.size() > maxBufferedCount ) {
+			buffer.removeFirst();
+		}
+	}
+
+	/**
+	 * Stops listening to the active condition. Buffered data is not flushed.
+	 */
+	public void dispose() {
+		active.removeListener( activeListener );
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+/**
+ * An {@link AxisTickFormatter} whose label for a value depends only on that value and the tick spacing,
+ * and not on the low and high values given to {@link #setRange(double, double, double)}. {@link StableTicksAxis}
+ * caches the labels of such formatters while the tick spacing stays the same, so that the ticks remaining in the
+ * window when panning or following are not formatted again. Labels from other formatters are never cached, except
+ * those of {@link DefaultAxisTickFormatter} and {@link FixedFormatTickFormatter} themselves, which ignore the range;
+ * their subclasses are cached only if they implement this interface.
+ *
+ * @author Jason Winnebeck
+ */
+public interface CacheableTickFormatter extends AxisTickFormatter {
+}
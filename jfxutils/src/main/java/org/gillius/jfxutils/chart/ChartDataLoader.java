@@ -0,0 +1,264 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.application.Platform;
+import javafx.event.EventHandler;
+import javafx.scene.chart.XYChart;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * ChartDataLoader asks a {@link ChartDataProvider} for the data in the chart's X range on a
+ * background executor, and hands the result to a {@link Listener} on the JavaFX thread. Register
+ * {@link #getViewportHandler()} with a {@link ChartZoomManager} and/or {@link ChartPanManager} to
+ * load whenever the viewport settles, or call {@link #request(double, double)} directly.
+ * <p>
+ * Only the newest request matters: each request cancels (interrupts) the running and prefetching
+ * tasks of the previous one, even if the range it asks for is already loaded, and results of
+ * superseded requests are dropped.
+ * <p>
+ * After the visible range has loaded, the loader speculatively loads the adjacent ranges on both
+ * sides, {@link #setPrefetchFactor(double) prefetchFactor} times the visible span each, as two
+ * separate requests, and delivers each of them as well. The visible range is not loaded again. As
+ * long as later viewports stay within the loaded ranges at about the same zoom level, no new
+ * request is made, so panning finds the data already loaded.
+ * <p>
+ * All methods must be called on the JavaFX thread.
+ *
+ * @param <T> type of data returned by the provider
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartDataLoader<T> {
+	/**
+	 * Receives the data loaded by a {@link ChartDataLoader}, on the JavaFX thread.
+	 */
+	public interface Listener<T> {
+		/**
+		 * Called when data has loaded for the X range [xMin, xMax]. For a prefetch, this is one of the
+		 * ranges adjacent to the requested range, which the listener should add to the data it
+		 * already has.
+		 */
+		void dataLoaded( double xMin, double xMax, T data );
+
+		/**
+		 * Called when the provider threw an exception other than due to cancellation.
+		 */
+		void loadFailed( double xMin, double xMax, Throwable error );
+	}
+
+	/**
+	 * Loaded data is reused only if its pixels per X unit is within this ratio of the request's.
+	 */
+	private static final double MAX_DENSITY_RATIO = 1.25;
+
+	private final XYChart<?, ?> chart;
+	private final ChartDataProvider<T> provider;
+	private final ExecutorService executor;
+	private final Listener<? super T> listener;
+
+	private double prefetchFactor = 1.0;
+
+	private final EventHandler<ViewportEvent> viewportHandler = new EventHandler<ViewportEvent>() {
+		@Override
+		public void handle( ViewportEvent event ) {
+			if ( event.getEventType() == ViewportEvent.VIEWPORT_SETTLED )
+				request( event.getXLowerBound(), event.getXUpperBound() );
+		}
+	};
+
+	/**
+	 * Incremented for every request that reaches the provider; results tagged with an older
+	 * generation are dropped.
+	 */
+	private long generation = 0;
+	private Future<?> loadTask;
+	private Future<?> prefetchLowTask;
+	private Future<?> prefetchHighTask;
+	/**
+	 * Number of tasks of the current generation whose results have not been delivered yet.
+	 */
+	private int pendingTasks = 0;
+
+	private boolean loaded = false;
+	private double loadedMin;
+	private double loadedMax;
+	private double loadedDensity;
+
+	/**
+	 * Constructs a new loader.
+	 *
+	 * @param chart    chart whose X axis width determines the requested resolution
+	 * @param provider provider to load data from
+	 * @param executor executor to call the provider on, which is not shut down by this class
+	 * @param listener receives the loaded data on the JavaFX thread
+	 */
+	public ChartDataLoader( XYChart<?, ?> chart, ChartDataProvider<T> provider,
+	                        ExecutorService executor, Listener<? super T> listener ) {
+		this.chart = chart;
+		this.provider = provider;
+		this.executor = executor;
+		this.listener = listener;
+	}
+
+	/**
+	 * Returns a handler to add to a {@link ChartZoomManager} or {@link ChartPanManager} via their
+	 * addViewportHandler methods, which requests data each time the viewport settles.
+	 */
+	public EventHandler<ViewportEvent> getViewportHandler() {
+		return viewportHandler;
+	}
+
+	/**
+	 * Returns the span of the adjacent ranges prefetched on each side, as a multiple of the visible
+	 * span.
+	 */
+	public double getPrefetchFactor() {
+		return prefetchFactor;
+	}
+
+	/**
+	 * Sets the span of the adjacent ranges prefetched on each side, as a multiple of the visible
+	 * span. The default is 1.0, so three times the visible span is loaded in total. 0 disables
+	 * prefetching.
+	 */
+	public void setPrefetchFactor( double prefetchFactor ) {
+		if ( prefetchFactor < 0.0 )
+			throw new IllegalArgumentException( "prefetchFactor must not be negative" );
+		this.prefetchFactor = prefetchFactor;
+	}
+
+	/**
+	 * Requests the data for the X range [xMin, xMax] at the current width of the X axis, unless the
+	 * data already loaded covers it at a similar resolution. Any load still running for an earlier
+	 * request is cancelled either way.
+	 */
+	public void request( double xMin, double xMax ) {
+		if ( !( xMax > xMin ) )
+			return;
+
+		final int resolution = Math.max( 1, (int) Math.round( chart.getXAxis().getWidth() ) );
+		final double density = resolution / ( xMax - xMin );
+
+		//A pending load is for an earlier viewport, so its result must not replace the loaded range
+		if ( pendingTasks > 0 )
+			cancel();
+
+		if ( loaded && xMin >= loadedMin && xMax <= loadedMax &&
+		     density <= loadedDensity * MAX_DENSITY_RATIO &&
+		     density >= loadedDensity / MAX_DENSITY_RATIO )
+			return;
+
+		cancel();
+		final long requestGeneration = generation;
+		loadTask = submit( requestGeneration, xMin, xMax, resolution, density, true );
+	}
+
+	/**
+	 * Forgets which range is loaded, so the next request always reaches the provider. Call this when
+	 * the underlying data has changed.
+	 */
+	public void invalidate() {
+		loaded = false;
+	}
+
+	/**
+	 * Cancels any running or prefetching tasks, and drops their results.
+	 */
+	public void cancel() {
+		++generation;
+		pendingTasks = 0;
+		if ( loadTask != null ) {
+			loadTask.cancel( true );
+			loadTask = null;
+		}
+		if ( prefetchLowTask != null ) {
+			prefetchLowTask.cancel( true );
+			prefetchLowTask = null;
+		}
+		if ( prefetchHighTask != null ) {
+			prefetchHighTask.cancel( true );
+			prefetchHighTask = null;
+		}
+	}
+
+	private Future<?> submit( final long requestGeneration, final double xMin, final double xMax,
+	                          final int resolution, final double density, final boolean prefetchAfter ) {
+		++pendingTasks;
+		return executor.submit( new Runnable() {
+			@Override
+			public void run() {
+				T data = null;
+				Throwable error = null;
+				try {
+					data = provider.getData( xMin, xMax, resolution );
+				} catch ( InterruptedException ex ) {
+					return;
+				} catch ( Throwable t ) {
+					error = t;
+				}
+
+				if ( Thread.currentThread().isInterrupted() )
+					return;
+
+				final T result = data;
+				final Throwable failure = error;
+				Platform.runLater( new Runnable() {
+					@Override
+					public void run() {
+						if ( requestGeneration != generation )
+							return;
+						--pendingTasks;
+						complete( requestGeneration, xMin, xMax, resolution, density, result, failure,
+						          prefetchAfter );
+					}
+				} );
+			}
+		} );
+	}
+
+	private void complete( long requestGeneration, double xMin, double xMax, int resolution,
+	                       double density, T data, Throwable error, boolean prefetchAfter ) {
+		if ( error != null ) {
+			listener.loadFailed( xMin, xMax, error );
+			return;
+		}
+
+		if ( prefetchAfter ) {
+			loaded = true;
+			loadedMin = xMin;
+			loadedMax = xMax;
+			loadedDensity = density;
+		} else if ( loaded ) {
+			//A prefetched range is adjacent to the loaded range, so the union stays contiguous
+			loadedMin = Math.min( loadedMin, xMin );
+			loadedMax = Math.max( loadedMax, xMax );
+		}
+		listener.dataLoaded( xMin, xMax, data );
+
+		if ( prefetchAfter && prefetchFactor > 0.0 ) {
+			double prefetchSpan = ( xMax - xMin ) * prefetchFactor;
+			int prefetchResolution = Math.max( 1, (int) Math.round( resolution * prefetchFactor ) );
+			prefetchLowTask = submit( requestGeneration, xMin - prefetchSpan, xMin,
+			                          prefetchResolution, density, false );
+			prefetchHighTask = submit( requestGeneration, xMax, xMax + prefetchSpan,
+			                           prefetchResolution, density, false );
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+/**
+ * A source of chart data that can be queried by X range, for example an archive too large to load
+ * into an {@link javafx.scene.chart.XYChart.Series} in full. The {@link ChartDataLoader} calls the
+ * provider on a background thread whenever the chart's viewport settles.
+ *
+ * @param <T> type of data returned, such as a list of points or a primitive array
+ *
+ * @see ChartDataLoader
+ */
+public interface ChartDataProvider<T> {
+	/**
+	 * Returns the data in the X range [xMin, xMax] for display at about the given number of pixels.
+	 * Providers may use the resolution to return a reduced point set. This method is called on a
+	 * background thread. When a newer viewport supersedes the request, the calling thread is
+	 * interrupted, so long-running providers should check {@link Thread#isInterrupted()} or use
+	 * interruptible I/O.
+	 *
+	 * @param xMin       lower X value
+	 * @param xMax       upper X value
+	 * @param resolution number of pixels the range is displayed across, at least 1
+	 */
+	T getData( double xMin, double xMax, int resolution ) throws Exception;
+}
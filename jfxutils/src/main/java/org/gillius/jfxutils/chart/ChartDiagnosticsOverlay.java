@@ -0,0 +1,271 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+
+import java.util.Locale;
+
+/**
+ * ChartDiagnosticsOverlay is a label showing live performance figures of an {@link XYChart}:
+ * frames per second, pulse duration, chart layouts per second, points within the X axis range
+ * versus the total number of points, and the last tick computation time of a
+ * {@link StableTicksAxis}. It is meant to be stacked over a chart, for example onto the StackPane
+ * returned by {@link JFXChartUtil#setupZooming(XYChart)}:
+ * <pre>
+StackPane chartPane = (StackPane) JFXChartUtil.setupZooming( chart );
+ChartDiagnosticsOverlay overlay = new ChartDiagnosticsOverlay( chart );
+chartPane.getChildren().add( overlay );
+overlay.start();</pre>
+ * <p>
+ * Samples are taken by an {@link AnimationTimer} and the scene's post layout pulse listener into
+ * fixed size ring buffers, so no allocation is done per frame. The text is only rebuilt every
+ * {@link #updateIntervalMillisProperty() update interval}, and the point counts of series sorted by
+ * X are found by binary search, so the overlay itself adds little to the frames it measures. Other
+ * series, such as those of a ScatterChart, are counted by a scan of every point. The pulse duration is
+ * measured from the start of the animation phase of the pulse to the end of layout, and so does not
+ * include rendering.
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartDiagnosticsOverlay extends Label {
+	private static final int SAMPLES = 256;
+	private static final long NANOS_PER_SECOND = 1000L * 1000L * 1000L;
+
+	private final XYChart<?, ?> chart;
+
+	private final DoubleProperty updateIntervalMillis = new SimpleDoubleProperty( 500.0 );
+
+	/**
+	 * Pulse start times, indexed by frame % SAMPLES.
+	 */
+	private final long[] pulseStarts = new long[SAMPLES];
+
+	/**
+	 * Time from pulse start to the end of layout, indexed by frame % SAMPLES.
+	 */
+	private final long[] pulseDurations = new long[SAMPLES];
+
+	private long frames = 0;
+	private long layouts = 0;
+
+	private long lastUpdateNanos = 0;
+	private long lastUpdateLayouts = 0;
+
+	private Scene scene;
+	private boolean started = false;
+
+	/**
+	 * Follows which series are sorted by X, while started.
+	 */
+	private SeriesSortTracker sortTracker;
+
+	private final AnimationTimer timer = new AnimationTimer() {
+		@Override
+		public void handle( long now ) {
+			int index = (int) ( frames % SAMPLES );
+			pulseStarts[index] = now;
+			pulseDurations[index] = 0L;
+			++frames;
+
+			if ( now - lastUpdateNanos >= updateIntervalMillis.get() * 1e6 )
+				update( now );
+		}
+	};
+
+	private final Runnable postLayoutListener = new Runnable() {
+		@Override
+		public void run() {
+			if ( frames > 0 ) {
+				int index = (int) ( ( frames - 1 ) % SAMPLES );
+				pulseDurations[index] = System.nanoTime() - pulseStarts[index];
+			}
+		}
+	};
+
+	private final ChangeListener<Boolean> layoutListener = new ChangeListener<Boolean>() {
+		@Override
+		public void changed( ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue ) {
+			if ( !newValue )
+				++layouts;
+		}
+	};
+
+	private final ChangeListener<Scene> sceneListener = new ChangeListener<Scene>() {
+		@Override
+		public void changed( ObservableValue<? extends Scene> observable, Scene oldValue, Scene newValue ) {
+			setScene( newValue );
+		}
+	};
+
+	/**
+	 * Creates an overlay for the chart, aligned to the top right when placed in a StackPane. Call
+	 * {@link #start()} to begin sampling.
+	 */
+	public ChartDiagnosticsOverlay( XYChart<?, ?> chart ) {
+		this.chart = chart;
+		setMouseTransparent( true );
+		setPadding( new Insets( 4.0 ) );
+		setStyle( "-fx-background-color: rgba(255, 255, 255, 0.75); -fx-font-family: monospace;" );
+		StackPane.setAlignment( this, Pos.TOP_RIGHT );
+		StackPane.setMargin( this, new Insets( 8.0 ) );
+	}
+
+	public double getUpdateIntervalMillis() {
+		return updateIntervalMillis.get();
+	}
+
+	/**
+	 * How often the text is updated, in milliseconds. The default is 500.
+	 */
+	public DoubleProperty updateIntervalMillisProperty() {
+		return updateIntervalMillis;
+	}
+
+	public void setUpdateIntervalMillis( double updateIntervalMillis ) {
+		this.updateIntervalMillis.set( updateIntervalMillis );
+	}
+
+	/**
+	 * Starts sampling and updating the text.
+	 */
+	public void start() {
+		if ( started )
+			return;
+		started = true;
+
+		sortTracker = new SeriesSortTracker( chart );
+		chart.needsLayoutProperty().addListener( layoutListener );
+		sceneProperty().addListener( sceneListener );
+		setScene( getScene() );
+		timer.start();
+	}
+
+	/**
+	 * Stops sampling. The last text shown is left in place.
+	 */
+	public void stop() {
+		if ( !started )
+			return;
+		started = false;
+
+		timer.stop();
+		setScene( null );
+		sceneProperty().removeListener( sceneListener );
+		chart.needsLayoutProperty().removeListener( layoutListener );
+		sortTracker.dispose();
+		sortTracker = null;
+	}
+
+	private void setScene( Scene newScene ) {
+		if ( scene != null )
+			scene.removePostLayoutPulseListener( postLayoutListener );
+		scene = newScene;
+		if ( scene != null )
+			scene.addPostLayoutPulseListener( postLayoutListener );
+	}
+
+	private void update( long now ) {
+		long elapsed = now - lastUpdateNanos;
+		double layoutsPerSecond = lastUpdateNanos == 0 ? 0.0 :
+		                          ( layouts - lastUpdateLayouts ) * (double) NANOS_PER_SECOND / elapsed;
+		lastUpdateNanos = now;
+		lastUpdateLayouts = layouts;
+
+		//Use the samples from the last second, excluding the current pulse which has no duration yet
+		int count = 0;
+		long oldest = now;
+		long durationSum = 0;
+		long durationMax = 0;
+		long last = Math.min( frames, SAMPLES );
+		for ( int i = 2; i <= last; ++i ) {
+			int index = (int) ( ( frames - i ) % SAMPLES );
+			long start = pulseStarts[index];
+			if ( now - start > NANOS_PER_SECOND )
+				break;
+			oldest = start;
+			durationSum += pulseDurations[index];
+			durationMax = Math.max( durationMax, pulseDurations[index] );
+			++count;
+		}
+		double fps = count == 0 || now == oldest ? 0.0 : count * (double) NANOS_PER_SECOND / ( now - oldest );
+		double durationMean = count == 0 ? 0.0 : durationSum / (double) count;
+
+		StringBuilder text = new StringBuilder( 160 );
+		text.append( String.format( Locale.ROOT, "FPS %7.1f%n", fps ) );
+		text.append( String.format( Locale.ROOT, "Pulse %5.2f ms (max %.2f)%n", durationMean / 1e6, durationMax / 1e6 ) );
+		text.append( String.format( Locale.ROOT, "Layouts/s %5.1f%n", layoutsPerSecond ) );
+		appendPointCounts( text );
+		appendTickTime( text, "X", chart.getXAxis() );
+		appendTickTime( text, "Y", chart.getYAxis() );
+		setText( text.toString().trim() );
+	}
+
+	private void appendPointCounts( StringBuilder text ) {
+		long total = 0;
+		long visible = 0;
+		AxisBoundsAdapter bounds = AxisBoundsAdapters.forAxis( chart.getXAxis() );
+		for ( XYChart.Series<?, ?> series : chart.getData() ) {
+			total += series.getData().size();
+			if ( bounds != null )
+				visible += countVisible( series, bounds );
+		}
+
+		if ( bounds != null )
+			text.append( String.format( Locale.ROOT, "Points %d / %d%n", visible, total ) );
+		else
+			text.append( String.format( Locale.ROOT, "Points %d%n", total ) );
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private int countVisible( XYChart.Series<?, ?> series, AxisBoundsAdapter bounds ) {
+		XYChart<Object, Object> chart = (XYChart<Object, Object>) this.chart;
+		SortedXYData data = SortedXYDataUtil.forSeries( (XYChart.Series<Object, Object>) series,
+		                                                chart.getXAxis(), chart.getYAxis() );
+		double xMin = bounds.lowerBoundProperty().get();
+		double xMax = bounds.upperBoundProperty().get();
+		if ( !sortTracker.isSorted( series ) ) {
+			int ret = 0;
+			for ( int i = 0; i < data.size(); ++i ) {
+				double x = data.getX( i );
+				if ( x >= xMin && x <= xMax )
+					++ret;
+			}
+			return ret;
+		}
+		//An inverted axis range has no points in it
+		return Math.max( 0, SortedXYDataUtil.upperBound( data, xMax ) - SortedXYDataUtil.lowerBound( data, xMin ) );
+	}
+
+	private static void appendTickTime( StringBuilder text, String name, Axis<?> axis ) {
+		if ( axis instanceof StableTicksAxis ) {
+			long nanos = ( (StableTicksAxis) axis ).getLastTickCalculationNanos();
+			text.append( String.format( Locale.ROOT, "%s ticks %.1f us%n", name, nanos / 1e3 ) );
+		}
+	}
+}
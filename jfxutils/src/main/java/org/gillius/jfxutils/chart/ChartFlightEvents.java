@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.scene.chart.XYChart;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder events emitted by the chart classes, to see where frame time goes in a
+ * recording started with, for example, {@code jcmd <pid> JFR.start}. All events are in the
+ * "JFXUtils / Chart" category. The zoom, pan and axis range events are enabled by default. The
+ * axis layout event only records layouts of at least 1 ms by default, and the tick label format
+ * event, which fires once per label, is disabled by default; enable them in the recording settings
+ * to see every occurrence.
+ * <p>
+ * Callers follow the begin/end/shouldCommit pattern and only fill in fields when
+ * {@link Event#shouldCommit()} is true, so nothing beyond an allocation that the JIT removes is done
+ * while recording is off.
+ *
+ * @author Jason Winnebeck
+ */
+final class ChartFlightEvents {
+	private ChartFlightEvents() {
+	}
+
+	/**
+	 * Base for events that report the viewport of a chart at their end.
+	 */
+	@Category( { "JFXUtils", "Chart" } )
+	@StackTrace( false )
+	static abstract class ViewportFlightEvent extends Event {
+		@Label( "X Lower Bound" )
+		double xLowerBound;
+
+		@Label( "X Upper Bound" )
+		double xUpperBound;
+
+		@Label( "Y Lower Bound" )
+		double yLowerBound;
+
+		@Label( "Y Upper Bound" )
+		double yUpperBound;
+
+		@Label( "Series Count" )
+		int seriesCount;
+
+		@Label( "Point Count" )
+		@Description( "Total number of data points in all series of the chart" )
+		long pointCount;
+
+		void setViewport( double xLowerBound, double xUpperBound, double yLowerBound, double yUpperBound ) {
+			this.xLowerBound = xLowerBound;
+			this.xUpperBound = xUpperBound;
+			this.yLowerBound = yLowerBound;
+			this.yUpperBound = yUpperBound;
+		}
+
+		void setChart( XYChart<?, ?> chart ) {
+			seriesCount = chart.getData().size();
+			long points = 0;
+			for ( XYChart.Series<?, ?> series : chart.getData() ) {
+				points += series.getData().size();
+			}
+			pointCount = points;
+		}
+	}
+
+	@Name( "org.gillius.jfxutils.chart.Zoom" )
+	@Label( "Chart Zoom" )
+	@Description( "A zoom by ChartZoomManager, from the end of the gesture until the new bounds are applied" )
+	static class ZoomEvent extends ViewportFlightEvent {
+		@Label( "Gesture" )
+		@Description( "\"box\" for a selection rectangle, \"wheel\" for a mouse wheel tick, or \"viewport\" for setViewport" )
+		String gesture;
+
+		@Label( "Animated" )
+		boolean animated;
+	}
+
+	@Name( "org.gillius.jfxutils.chart.Pan" )
+	@Label( "Chart Pan" )
+	@Description( "A drag session of ChartPanManager, from mouse press to release" )
+	static class PanEvent extends ViewportFlightEvent {
+		@Label( "Drag Events" )
+		int dragEvents;
+	}
+
+	@Name( "org.gillius.jfxutils.chart.AxisRange" )
+	@Label( "Axis Range Computation" )
+	@Description( "A call to autoRange, calculateTickValues or setRange of StableTicksAxis" )
+	@Category( { "JFXUtils", "Chart" } )
+	@StackTrace( false )
+	static class AxisRangeEvent extends Event {
+		@Label( "Operation" )
+		String operation;
+
+		@Label( "Side" )
+		String side;
+
+		@Label( "Length" )
+		double length;
+
+		@Label( "Lower Bound" )
+		double lowerBound;
+
+		@Label( "Upper Bound" )
+		double upperBound;
+
+		@Label( "Tick Spacing" )
+		double tickSpacing;
+
+		@Label( "Tick Count" )
+		int tickCount;
+	}
+
+	@Name( "org.gillius.jfxutils.chart.AxisLayout" )
+	@Label( "Axis Layout" )
+	@Description( "A layout pass of StableTicksAxis, including tick mark creation and label measurement" )
+	@Category( { "JFXUtils", "Chart" } )
+	@StackTrace( false )
+	@Threshold( "1 ms" )
+	static class AxisLayoutEvent extends Event {
+		@Label( "Side" )
+		String side;
+
+		@Label( "Width" )
+		double width;
+
+		@Label( "Height" )
+		double height;
+
+		@Label( "Tick Count" )
+		int tickCount;
+	}
+
+	@Name( "org.gillius.jfxutils.chart.TickLabelFormat" )
+	@Label( "Tick Label Format" )
+	@Description( "A call to the AxisTickFormatter of StableTicksAxis for one tick label" )
+	@Category( { "JFXUtils", "Chart" } )
+	@StackTrace( false )
+	@Enabled( false )
+	static class TickLabelFormatEvent extends Event {
+		@Label( "Formatter" )
+		Class<?> formatter;
+
+		@Label( "Value" )
+		double value;
+
+		@Label( "Label" )
+		String label;
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.transform.Scale;
+import org.gillius.jfxutils.StreamingPngWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * ChartImageExporter saves a node, such as a chart with its axes or the StackPane from
+ * {@link JFXChartUtil#setupZooming(javafx.scene.chart.XYChart)}, as a PNG image at a scale factor,
+ * for example an 8K image of a chart shown at 1080p. A single {@link Node#snapshot} of that size
+ * exceeds texture size limits and needs the whole image in memory, so instead the image is rendered
+ * in bands of rows, each made of tiles of at most {@link #setTileSize(int) tileSize} pixels wide.
+ * <p>
+ * One band is rendered per pulse on the JavaFX thread, so the UI stays responsive, and handed to a
+ * background task that compresses it into a {@link StreamingPngWriter}. At most two bands are
+ * queued for the writer; rendering pauses while the writer catches up. Memory use is therefore
+ * bounded by a few bands (width x {@link #setBandHeight(int) bandHeight} pixels), whatever the
+ * image height.
+ * <p>
+ * The node must not change while it is exported, or the bands will not match. All methods must be
+ * called on the JavaFX thread.
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartImageExporter {
+	/**
+	 * Receives the result of an export, on the JavaFX thread.
+	 */
+	public interface Listener {
+		/**
+		 * Called when the image has been completely written to the file.
+		 */
+		void exportFinished( File file );
+
+		/**
+		 * Called when the export failed. The file may be left partially written.
+		 */
+		void exportFailed( File file, Throwable error );
+	}
+
+	private static final int QUEUED_BANDS = 2;
+
+	private final Node node;
+
+	private double scale = 1.0;
+	private int tileSize = 2048;
+	private int bandHeight = 256;
+
+	private Export current;
+
+	/**
+	 * Creates an exporter for the node.
+	 */
+	public ChartImageExporter( Node node ) {
+		this.node = node;
+	}
+
+	public Node getNode() {
+		return node;
+	}
+
+	public double getScale() {
+		return scale;
+	}
+
+	/**
+	 * Sets the scale factor from the node's size to the image size. The default is 1.0.
+	 */
+	public void setScale( double scale ) {
+		if ( !( scale > 0.0 ) )
+			throw new IllegalArgumentException( "scale must be positive" );
+		this.scale = scale;
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	/**
+	 * Sets the maximum width in pixels of each snapshot, which must be within the graphics
+	 * pipeline's texture size limit. The default is 2048.
+	 */
+	public void setTileSize( int tileSize ) {
+		if ( tileSize < 1 )
+			throw new IllegalArgumentException( "tileSize must be positive" );
+		this.tileSize = tileSize;
+	}
+
+	public int getBandHeight() {
+		return bandHeight;
+	}
+
+	/**
+	 * Sets the height in pixels of each band of rows rendered in one pulse. The default is 256.
+	 */
+	public void setBandHeight( int bandHeight ) {
+		if ( bandHeight < 1 || bandHeight > tileSize )
+			throw new IllegalArgumentException( "bandHeight must be between 1 and tileSize" );
+		this.bandHeight = bandHeight;
+	}
+
+	/**
+	 * Returns true while an export is in progress.
+	 */
+	public boolean isExporting() {
+		return current != null;
+	}
+
+	/**
+	 * Starts exporting the node to a PNG file. Only one export can run at a time.
+	 *
+	 * @param file     file to write
+	 * @param executor executor to compress and write the image on, which is not shut down by this
+	 *                 class
+	 * @param listener receives the result on the JavaFX thread
+	 */
+	public void export( File file, ExecutorService executor, Listener listener ) {
+		if ( current != null )
+			throw new IllegalStateException( "An export is already in progress" );
+
+		Bounds bounds = node.getBoundsInLocal();
+		int width = (int) Math.ceil( bounds.getWidth() * scale );
+		int height = (int) Math.ceil( bounds.getHeight() * scale );
+		if ( width <= 0 || height <= 0 )
+			throw new IllegalStateException( "Node has no size" );
+
+		current = new Export( file, listener, bounds, width, height );
+		current.writer = executor.submit( current.writerTask );
+		current.renderer.start();
+	}
+
+	/**
+	 * Cancels the export in progress, if any. The listener is not called, and the file is left
+	 * partially written.
+	 */
+	public void cancel() {
+		if ( current != null ) {
+			current.renderer.stop();
+			current.writer.cancel( true );
+			current = null;
+		}
+	}
+
+	private static class Band {
+		private final int[] pixels;
+		private int rows;
+
+		private Band( int[] pixels ) {
+			this.pixels = pixels;
+		}
+	}
+
+	private class Export {
+		private final File file;
+		private final Listener listener;
+		private final int width;
+		private final int height;
+		private final double originX;
+		private final double originY;
+
+		/**
+		 * Bands rendered and waiting to be written. A band with 0 rows marks the end.
+		 */
+		private final BlockingQueue<Band> filled = new ArrayBlockingQueue<Band>( QUEUED_BANDS + 1 );
+
+		/**
+		 * Bands available for rendering.
+		 */
+		private final BlockingQueue<Band> free = new ArrayBlockingQueue<Band>( QUEUED_BANDS + 1 );
+
+		private final SnapshotParameters params = new SnapshotParameters();
+		private WritableImage tileImage;
+		private int nextRow = 0;
+		private Future<?> writer;
+
+		private final AnimationTimer renderer = new AnimationTimer() {
+			@Override
+			public void handle( long now ) {
+				Band band = free.poll();
+				if ( band == null )
+					return; //The writer is behind, try again next pulse
+
+				if ( nextRow >= height ) {
+					stop();
+					band.rows = 0;
+					filled.add( band );
+					return;
+				}
+
+				try {
+					renderBand( band );
+				} catch ( RuntimeException e ) {
+					stop();
+					writer.cancel( true );
+					current = null;
+					listener.exportFailed( file, e );
+					return;
+				}
+				filled.add( band );
+			}
+		};
+
+		private final Runnable writerTask = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					StreamingPngWriter png = new StreamingPngWriter(
+							new BufferedOutputStream( new FileOutputStream( file ) ), width, height );
+					try {
+						while ( true ) {
+							Band band = filled.take();
+							if ( band.rows == 0 )
+								break;
+							png.writeRows( band.pixels, 0, width, band.rows );
+							free.add( band );
+						}
+					} finally {
+						png.close();
+					}
+					finish( null );
+
+				} catch ( InterruptedException ignored ) {
+					//Cancelled
+				} catch ( IOException | RuntimeException e ) {
+					finish( e );
+				}
+			}
+		};
+
+		private Export( File file, Listener listener, Bounds bounds, int width, int height ) {
+			this.file = file;
+			this.listener = listener;
+			this.width = width;
+			this.height = height;
+			originX = bounds.getMinX() * scale;
+			originY = bounds.getMinY() * scale;
+			params.setTransform( new Scale( scale, scale ) );
+
+			for ( int i = 0; i < QUEUED_BANDS + 1; ++i ) {
+				free.add( new Band( new int[width * bandHeight] ) );
+			}
+		}
+
+		private void renderBand( Band band ) {
+			int rows = Math.min( bandHeight, height - nextRow );
+			for ( int x = 0; x < width; x += tileSize ) {
+				int tileWidth = Math.min( tileSize, width - x );
+				params.setViewport( new Rectangle2D( originX + x, originY + nextRow, tileWidth, rows ) );
+				tileImage = node.snapshot( params, tileImage );
+				tileImage.getPixelReader().getPixels( 0, 0, tileWidth, rows, PixelFormat.getIntArgbInstance(),
+				                                      band.pixels, x, width );
+			}
+			band.rows = rows;
+			nextRow += rows;
+		}
+
+		private void finish( final Throwable error ) {
+			Platform.runLater( new Runnable() {
+				@Override
+				public void run() {
+					if ( current != Export.this )
+						return; //cancelled
+					current = null;
+					renderer.stop();
+					if ( error == null )
+						listener.exportFinished( file );
+					else
+						listener.exportFailed( file, error );
+				}
+			} );
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.scene.input.InputEvent;
+
+/**
+ * A mode of interaction with a chart, such as zooming or panning, driven by a
+ * {@link ChartInteractionController}.
+ *
+ * @see ChartZoomManager#useExternalDispatch()
+ * @see ChartPanManager#useExternalDispatch()
+ * @see JFXChartUtil#getDoublePrimaryClickAutoRangeInteraction(javafx.scene.chart.XYChart)
+ */
+public interface ChartInteraction {
+	/**
+	 * Handles an input event (a {@link javafx.scene.input.MouseEvent} or
+	 * {@link javafx.scene.input.ScrollEvent}) whose coordinates are in the controller target's
+	 * coordinate system.
+	 *
+	 * @param event   the event
+	 * @param context hit test results for the event's location, computed once and shared by all
+	 *                interactions
+	 *
+	 * @return true if this interaction used the event, in which case it is not offered to
+	 *         interactions of lower priority
+	 */
+	boolean handle( InputEvent event, ChartInputContext context );
+}
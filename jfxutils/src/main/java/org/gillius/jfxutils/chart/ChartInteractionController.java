@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.chart.XYChart;
+import javafx.scene.input.InputEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import org.gillius.jfxutils.EventHandlerManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ChartInteractionController dispatches the input events of a chart to a set of
+ * {@link ChartInteraction}s, such as zooming, panning and selection, in place of each of them
+ * registering its own handlers. It registers one handler per event type on the target, computes the
+ * {@link ChartInputContext} once per event, and offers the event to the interactions in order of
+ * decreasing priority until one of them uses it. The cost of dispatching an event therefore stays
+ * flat as interaction modes are added.
+ * <p>
+ * Example equivalent to the Charting example's setup, where the chart is in a StackPane chartPane
+ * with a selection rectangle:
+ * <pre>
+ChartInteractionController controller = new ChartInteractionController( chart, chartPane );
+controller.addInteraction( panManager.useExternalDispatch(), 30 );
+controller.addInteraction( zoomManager.useExternalDispatch(), 20 );
+controller.addInteraction( JFXChartUtil.getDoublePrimaryClickAutoRangeInteraction( chart ), 10 );
+panManager.start();
+zoomManager.start();
+controller.start();</pre>
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartInteractionController {
+	private final XYChartInfo chartInfo;
+	private final EventHandlerManager handlerManager;
+
+	/**
+	 * Interactions in order of decreasing priority.
+	 */
+	private final List<Registration> registrations = new ArrayList<Registration>();
+
+	private final EventHandler<InputEvent> dispatcher = new EventHandler<InputEvent>() {
+		@Override
+		public void handle( InputEvent event ) {
+			dispatch( event );
+		}
+	};
+
+	/**
+	 * Constructs a controller for the chart which listens to events on the target.
+	 *
+	 * @param chart  chart being interacted with
+	 * @param target the chart or an ancestor of it, such as the chartPane of a
+	 *               {@link ChartZoomManager}
+	 */
+	public ChartInteractionController( XYChart<?, ?> chart, Node target ) {
+		chartInfo = new XYChartInfo( chart, target );
+		handlerManager = new EventHandlerManager( target );
+
+		addHandler( MouseEvent.MOUSE_PRESSED );
+		addHandler( MouseEvent.DRAG_DETECTED );
+		addHandler( MouseEvent.MOUSE_DRAGGED );
+		addHandler( MouseEvent.MOUSE_RELEASED );
+		addHandler( MouseEvent.MOUSE_CLICKED );
+		addHandler( ScrollEvent.ANY );
+	}
+
+	public XYChartInfo getChartInfo() {
+		return chartInfo;
+	}
+
+	/**
+	 * Adds an interaction. Interactions with higher priority are offered events first; those with
+	 * the same priority are offered events in the order they were added.
+	 */
+	public void addInteraction( ChartInteraction interaction, int priority ) {
+		int index = 0;
+		while ( index < registrations.size() && registrations.get( index ).priority >= priority )
+			++index;
+		registrations.add( index, new Registration( interaction, priority ) );
+	}
+
+	/**
+	 * Removes an interaction added by {@link #addInteraction(ChartInteraction, int)}.
+	 */
+	public void removeInteraction( ChartInteraction interaction ) {
+		for ( int i = 0; i < registrations.size(); ++i ) {
+			if ( registrations.get( i ).interaction == interaction ) {
+				registrations.remove( i );
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Starts dispatching events by adding the handlers to the target.
+	 */
+	public void start() {
+		handlerManager.addAllHandlers();
+	}
+
+	/**
+	 * Stops dispatching events by removing the handlers from the target.
+	 */
+	public void stop() {
+		handlerManager.removeAllHandlers();
+	}
+
+	private <T extends InputEvent> void addHandler( EventType<T> type ) {
+		handlerManager.addEventHandler( false, type, dispatcher );
+	}
+
+	private void dispatch( InputEvent event ) {
+		double x;
+		double y;
+		if ( event instanceof MouseEvent ) {
+			x = ( (MouseEvent) event ).getX();
+			y = ( (MouseEvent) event ).getY();
+		} else if ( event instanceof ScrollEvent ) {
+			x = ( (ScrollEvent) event ).getX();
+			y = ( (ScrollEvent) event ).getY();
+		} else {
+			return;
+		}
+
+		ChartInputContext context = new DefaultChartInputContext( chartInfo, x, y );
+		for ( int i = 0; i < registrations.size(); ++i ) {
+			if ( registrations.get( i ).interaction.handle( event, context ) )
+				return;
+		}
+	}
+
+	private static class Registration {
+		private final ChartInteraction interaction;
+		private final int priority;
+
+		private Registration( ChartInteraction interaction, int priority ) {
+			this.interaction = interaction;
+			this.priority = priority;
+		}
+	}
+}
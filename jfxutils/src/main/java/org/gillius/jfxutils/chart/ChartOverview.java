@@ -0,0 +1,429 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.event.EventHandler;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.XYChart;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.StrokeType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ChartOverview is a strip showing all of the data of a main chart in a heavily downsampled form,
+ * with a rectangle marking the main chart's visible X range. Dragging the rectangle, or pressing
+ * elsewhere in the strip to center it there, pans the main chart, which makes navigating long data
+ * sets much quicker than repeated box zooms.
+ * <p>
+ * The data is drawn once into a {@link Canvas} with a min/max decimation to one vertical line per
+ * pixel column, and redrawn only when the data changes or the overview is resized. Moving the main
+ * chart's viewport only moves the rectangle. While dragging, the new bounds are applied to the main
+ * chart at most once per pulse, so the main chart lays out once per frame however many mouse events
+ * arrive.
+ * <p>
+ * By default the main chart's series are shown, and changes to them are detected automatically.
+ * Other data, such as {@link DoubleXYData} backing a decimated main chart, can be shown instead by
+ * calling {@link #addSeries(SortedXYData)}; call {@link #invalidateData()} when it changes. Series
+ * sorted by X are split into columns by binary search, and others, such as those of a
+ * ScatterChart, by a scan of every point. Call {@link #dispose()} when the overview is no longer
+ * used, to stop listening to the main chart.
+ * <p>
+ * The main chart's X axis must be supported by {@link AxisBoundsAdapters}. If it is a member of an
+ * {@link AxisGroup}, the other members follow it.
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartOverview extends Region {
+	private static final Color[] COLORS = {
+			Color.web( "#f3622d" ), Color.web( "#fba71b" ), Color.web( "#57b757" ), Color.web( "#41a9c9" ),
+			Color.web( "#4258c9" ), Color.web( "#9a42c8" ), Color.web( "#c84164" ), Color.web( "#888888" ),
+	};
+
+	private final XYChart<?, ?> chart;
+	private final AxisBoundsAdapter xBounds;
+
+	private final Canvas canvas = new Canvas();
+	private final Rectangle viewportRect = new Rectangle();
+
+	private final List<SortedXYData> sources = new ArrayList<SortedXYData>();
+
+	/**
+	 * X range of all data, as of the last redraw.
+	 */
+	private double dataXMin = 0.0;
+	private double dataXMax = 1.0;
+
+	private boolean dataDirty = true;
+
+	private boolean dragging = false;
+	private double dragOffset;
+
+	private boolean pendingBounds = false;
+	private double pendingLower;
+	private double pendingUpper;
+
+	private final InvalidationListener viewportListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			updateViewportRect();
+		}
+	};
+
+	/**
+	 * Series whose data lists are listened to.
+	 */
+	private final List<XYChart.Series<?, ?>> listenedSeries = new ArrayList<XYChart.Series<?, ?>>();
+
+	private final InvalidationListener dataListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			invalidateData();
+		}
+	};
+
+	private final InvalidationListener seriesListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			listenToSeries();
+			invalidateData();
+		}
+	};
+
+	/**
+	 * Applies dragged bounds once per pulse.
+	 */
+	private final AnimationTimer applyTimer = new AnimationTimer() {
+		@Override
+		public void handle( long now ) {
+			if ( pendingBounds ) {
+				pendingBounds = false;
+				chart.getXAxis().setAutoRanging( false );
+				xBounds.lowerBoundProperty().set( pendingLower );
+				xBounds.upperBoundProperty().set( pendingUpper );
+			}
+			if ( !dragging )
+				stop();
+		}
+	};
+
+	/**
+	 * Creates an overview of the chart's data.
+	 */
+	public ChartOverview( XYChart<?, ?> chart ) {
+		this.chart = chart;
+		xBounds = AxisBoundsAdapters.forAxis( chart.getXAxis() );
+		if ( xBounds == null )
+			throw new IllegalArgumentException( "X axis type not supported" );
+
+		getStyleClass().add( "chart-overview" );
+		setPrefHeight( 60.0 );
+		setMinHeight( 20.0 );
+
+		viewportRect.setFill( Color.DODGERBLUE.deriveColor( 0.0, 1.0, 1.0, 0.2 ) );
+		viewportRect.setStroke( Color.rgb( 0, 0x29, 0x66 ) );
+		viewportRect.setStrokeType( StrokeType.INSIDE );
+		viewportRect.setManaged( false );
+		getChildren().addAll( canvas, viewportRect );
+
+		xBounds.lowerBoundProperty().addListener( viewportListener );
+		xBounds.upperBoundProperty().addListener( viewportListener );
+
+		chart.getData().addListener( seriesListener );
+		listenToSeries();
+
+		setOnMousePressed( new EventHandler<MouseEvent>() {
+			@Override
+			public void handle( MouseEvent event ) {
+				onMousePressed( event );
+			}
+		} );
+		setOnMouseDragged( new EventHandler<MouseEvent>() {
+			@Override
+			public void handle( MouseEvent event ) {
+				if ( dragging )
+					dragTo( event.getX() );
+			}
+		} );
+		setOnMouseReleased( new EventHandler<MouseEvent>() {
+			@Override
+			public void handle( MouseEvent event ) {
+				dragging = false;
+			}
+		} );
+	}
+
+	/**
+	 * Stops listening to the main chart's axis and data, so that the overview can be discarded while
+	 * the chart is still in use.
+	 */
+	public void dispose() {
+		applyTimer.stop();
+		dragging = false;
+		pendingBounds = false;
+		xBounds.lowerBoundProperty().removeListener( viewportListener );
+		xBounds.upperBoundProperty().removeListener( viewportListener );
+		chart.getData().removeListener( seriesListener );
+		for ( XYChart.Series<?, ?> series : listenedSeries ) {
+			series.getData().removeListener( dataListener );
+		}
+		listenedSeries.clear();
+	}
+
+	/**
+	 * Shows the given data instead of the main chart's series. May be called several times to show
+	 * several series. The data does not need to be sorted by X.
+	 */
+	public void addSeries( SortedXYData data ) {
+		sources.add( data );
+		invalidateData();
+	}
+
+	/**
+	 * Removes all data added with {@link #addSeries(SortedXYData)}, going back to showing the main
+	 * chart's series.
+	 */
+	public void clearSeries() {
+		sources.clear();
+		invalidateData();
+	}
+
+	/**
+	 * Marks the data as changed, so that the overview is redrawn in the next layout pass.
+	 */
+	public void invalidateData() {
+		dataDirty = true;
+		requestLayout();
+	}
+
+	private void listenToSeries() {
+		for ( XYChart.Series<?, ?> series : listenedSeries ) {
+			series.getData().removeListener( dataListener );
+		}
+		listenedSeries.clear();
+		for ( XYChart.Series<?, ?> series : chart.getData() ) {
+			series.getData().addListener( dataListener );
+			listenedSeries.add( series );
+		}
+	}
+
+	@Override
+	protected void layoutChildren() {
+		double x = snappedLeftInset();
+		double y = snappedTopInset();
+		double w = snapSizeX( getWidth() ) - x - snappedRightInset();
+		double h = snapSizeY( getHeight() ) - y - snappedBottomInset();
+		canvas.setLayoutX( x );
+		canvas.setLayoutY( y );
+		if ( canvas.getWidth() != w || canvas.getHeight() != h ) {
+			canvas.setWidth( Math.max( 0.0, w ) );
+			canvas.setHeight( Math.max( 0.0, h ) );
+			dataDirty = true;
+		}
+		if ( dataDirty ) {
+			dataDirty = false;
+			redraw();
+		}
+		updateViewportRect();
+	}
+
+	private void onMousePressed( MouseEvent event ) {
+		double x = event.getX();
+		if ( x >= viewportRect.getLayoutX() && x <= viewportRect.getLayoutX() + viewportRect.getWidth() ) {
+			dragOffset = x - viewportRect.getLayoutX();
+		} else {
+			//Center the viewport at the press and drag from there
+			dragOffset = viewportRect.getWidth() / 2.0;
+			dragTo( x );
+		}
+		dragging = true;
+		applyTimer.start();
+	}
+
+	private void dragTo( double x ) {
+		double span = xBounds.upperBoundProperty().get() - xBounds.lowerBoundProperty().get();
+		double lower = toValue( x - dragOffset );
+		pendingLower = lower;
+		pendingUpper = lower + span;
+		pendingBounds = true;
+	}
+
+	private double toValue( double x ) {
+		return dataXMin + ( x - canvas.getLayoutX() ) / canvas.getWidth() * ( dataXMax - dataXMin );
+	}
+
+	private double toPixel( double value ) {
+		return canvas.getLayoutX() + ( value - dataXMin ) / ( dataXMax - dataXMin ) * canvas.getWidth();
+	}
+
+	private void updateViewportRect() {
+		double left = toPixel( pendingBounds ? pendingLower : xBounds.lowerBoundProperty().get() );
+		double right = toPixel( pendingBounds ? pendingUpper : xBounds.upperBoundProperty().get() );
+		viewportRect.setLayoutX( left );
+		viewportRect.setLayoutY( canvas.getLayoutY() );
+		viewportRect.setWidth( Math.max( 1.0, right - left ) );
+		viewportRect.setHeight( canvas.getHeight() );
+	}
+
+	private List<SortedXYData> getSources() {
+		if ( !sources.isEmpty() )
+			return sources;
+
+		@SuppressWarnings( "unchecked" )
+		XYChart<Object, Object> chart = (XYChart<Object, Object>) this.chart;
+		List<SortedXYData> ret = new ArrayList<SortedXYData>( chart.getData().size() );
+		for ( XYChart.Series<Object, Object> series : chart.getData() ) {
+			ret.add( SortedXYDataUtil.forSeries( series, chart.getXAxis(), chart.getYAxis() ) );
+		}
+		return ret;
+	}
+
+	private void redraw() {
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		double width = canvas.getWidth();
+		double height = canvas.getHeight();
+		gc.clearRect( 0, 0, width, height );
+
+		List<SortedXYData> data = getSources();
+		boolean[] sorted = new boolean[data.size()];
+		double xMin = Double.POSITIVE_INFINITY;
+		double xMax = Double.NEGATIVE_INFINITY;
+		double yMin = Double.POSITIVE_INFINITY;
+		double yMax = Double.NEGATIVE_INFINITY;
+		for ( int s = 0; s < data.size(); ++s ) {
+			SortedXYData series = data.get( s );
+			//Every point is visited for the Y range anyway, so the X range and order come for free
+			sorted[s] = true;
+			double lastX = Double.NEGATIVE_INFINITY;
+			for ( int i = 0; i < series.size(); ++i ) {
+				double x = series.getX( i );
+				double y = series.getY( i );
+				if ( !( x >= lastX ) )
+					sorted[s] = false;
+				lastX = x;
+				if ( x < xMin )
+					xMin = x;
+				if ( x > xMax )
+					xMax = x;
+				if ( y < yMin )
+					yMin = y;
+				if ( y > yMax )
+					yMax = y;
+			}
+		}
+
+		if ( xMin > xMax || width < 1.0 || height < 1.0 ) {
+			dataXMin = 0.0;
+			dataXMax = 1.0;
+			return;
+		}
+		if ( xMax == xMin )
+			xMax = xMin + 1.0;
+		if ( yMax == yMin )
+			yMax = yMin + 1.0;
+		dataXMin = xMin;
+		dataXMax = xMax;
+
+		int columns = (int) width;
+		double xPerColumn = ( xMax - xMin ) / columns;
+		double yScale = ( height - 1.0 ) / ( yMax - yMin );
+		double[] columnMin = new double[columns];
+		double[] columnMax = new double[columns];
+		gc.setLineWidth( 1.0 );
+		for ( int s = 0; s < data.size(); ++s ) {
+			SortedXYData series = data.get( s );
+			if ( sorted[s] )
+				binSorted( series, xMin, xPerColumn, columnMin, columnMax );
+			else
+				binUnsorted( series, xMin, xPerColumn, columnMin, columnMax );
+
+			gc.setStroke( COLORS[s % COLORS.length] );
+			double lastY = Double.NaN;
+			for ( int column = 0; column < columns; ++column ) {
+				double min = columnMin[column];
+				double max = columnMax[column];
+				if ( min > max )
+					continue;
+				double px = column + 0.5;
+				double top = height - 0.5 - ( max - yMin ) * yScale;
+				double bottom = height - 0.5 - ( min - yMin ) * yScale;
+				//Connect to the previous column, then draw this column's range
+				if ( !Double.isNaN( lastY ) )
+					gc.strokeLine( px - 1.0, lastY, px, ( top + bottom ) / 2.0 );
+				gc.strokeLine( px, top, px, bottom );
+				lastY = ( top + bottom ) / 2.0;
+			}
+		}
+	}
+
+	/**
+	 * Finds the minimum and maximum Y of each pixel column of a series sorted by X, by binary
+	 * searching the column edges. Empty columns get a minimum above their maximum.
+	 */
+	private static void binSorted( SortedXYData series, double xMin, double xPerColumn,
+	                               double[] columnMin, double[] columnMax ) {
+		int columns = columnMin.length;
+		int start = 0;
+		for ( int column = 0; column < columns; ++column ) {
+			int end = column == columns - 1 ? series.size() :
+			          SortedXYDataUtil.lowerBound( series, xMin + xPerColumn * ( column + 1 ) );
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for ( int i = start; i < end; ++i ) {
+				double y = series.getY( i );
+				if ( y < min )
+					min = y;
+				if ( y > max )
+					max = y;
+			}
+			columnMin[column] = min;
+			columnMax[column] = max;
+			start = Math.max( start, end );
+		}
+	}
+
+	/**
+	 * Finds the minimum and maximum Y of each pixel column of a series in any X order, by visiting
+	 * every point once.
+	 */
+	private static void binUnsorted( SortedXYData series, double xMin, double xPerColumn,
+	                                 double[] columnMin, double[] columnMax ) {
+		int columns = columnMin.length;
+		Arrays.fill( columnMin, Double.POSITIVE_INFINITY );
+		Arrays.fill( columnMax, Double.NEGATIVE_INFINITY );
+		for ( int i = 0; i < series.size(); ++i ) {
+			double x = series.getX( i );
+			if ( Double.isNaN( x ) )
+				continue;
+			int column = Math.max( 0, Math.min( columns - 1, (int) ( ( x - xMin ) / xPerColumn ) ) );
+			double y = series.getY( i );
+			if ( y < columnMin[column] )
+				columnMin[column] = y;
+			if ( y > columnMax[column] )
+				columnMax[column] = y;
+		}
+	}
+}
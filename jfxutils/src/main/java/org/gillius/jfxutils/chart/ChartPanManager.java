@@ -16,12 +16,20 @@
 
 package org.gillius.jfxutils.chart;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.event.Event;
 import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.chart.ValueAxis;
 import javafx.scene.chart.XYChart;
+import javafx.scene.input.InputEvent;
 import javafx.scene.input.MouseEvent;
 import org.gillius.jfxutils.EventHandlerManager;
+import org.gillius.jfxutils.chart.ChartFlightEvents.PanEvent;
 
 /**
  * ChartPanManager manages drag gestures on an {@link XYChart} by translating them to panning
@@ -42,30 +50,75 @@ public class ChartPanManager {
 	private final ValueAxis<?> yAxis;
 	private final XYChartInfo chartInfo;
 
+	private final BooleanProperty panPreviewed = new SimpleBooleanProperty( false );
+	private final DoubleProperty previewCommitFraction = new SimpleDoubleProperty( 0.5 );
+
+	private final PlotContentPreview preview;
+
+	/**
+	 * Bounds the user has panned to while previewing, which are not yet set on the axes.
+	 */
+	private double previewXLower;
+	private double previewXUpper;
+	private double previewYLower;
+	private double previewYUpper;
+
 	private AxisConstraint panMode = AxisConstraint.None;
 	private AxisConstraintStrategy axisConstraintStrategy = AxisConstraintStrategies.getDefault();
 
 	private EventHandler<? super MouseEvent> mouseFilter = DEFAULT_FILTER;
 
+	private ChartZoomHistory zoomHistory;
+
+	private ViewportLimits viewportLimits;
+
+	private final ViewportEventSupport viewportEvents = new ViewportEventSupport( this ) {
+		@Override
+		protected Rectangle2D getViewport() {
+			return new Rectangle2D( xAxis.getLowerBound(), yAxis.getLowerBound(),
+			                        xAxis.getUpperBound() - xAxis.getLowerBound(),
+			                        yAxis.getUpperBound() - yAxis.getLowerBound() );
+		}
+	};
+
+	private AxisGroup xAxisGroup;
+	private AxisGroup yAxisGroup;
+
 	private boolean dragging = false;
 
+	private boolean started = false;
+
+	/**
+	 * True once {@link #useExternalDispatch()} has been called, after which events come from a
+	 * {@link ChartInteractionController} instead of this manager's own handlers.
+	 */
+	private boolean externallyDispatched = false;
+
+	private ChartInteraction interaction;
+
 	private boolean wasXAnimated;
 	private boolean wasYAnimated;
 
 	private double lastX;
 	private double lastY;
 
+	/**
+	 * Flight recorder event of the current drag session.
+	 */
+	private PanEvent panEvent;
+
 	public ChartPanManager(XYChart<?, ?> chart ) {
 		handlerManager = new EventHandlerManager( chart );
 		xAxis = (ValueAxis<?>) chart.getXAxis();
 		yAxis = (ValueAxis<?>) chart.getYAxis();
 		chartInfo = new XYChartInfo( chart, chart );
+		preview = new PlotContentPreview( chart );
 
 		handlerManager.addEventHandler( false, MouseEvent.DRAG_DETECTED, new EventHandler<MouseEvent>() {
 			@Override
 			public void handle( MouseEvent mouseEvent ) {
 				if ( passesFilter( mouseEvent ) )
-					startDrag( mouseEvent );
+					startDrag( mouseEvent, null );
 			}
 		} );
 
@@ -121,12 +174,224 @@ public class ChartPanManager {
 		this.mouseFilter = mouseFilter;
 	}
 
+	/**
+	 * Adds a handler for the {@link ViewportEvent}s sent as panning changes the axis bounds. The
+	 * viewport settles when the mouse is released.
+	 */
+	public void addViewportHandler( EventHandler<? super ViewportEvent> handler ) {
+		viewportEvents.addHandler( handler );
+	}
+
+	/**
+	 * Removes a handler added by {@link #addViewportHandler(EventHandler)}.
+	 */
+	public void removeViewportHandler( EventHandler<? super ViewportEvent> handler ) {
+		viewportEvents.removeHandler( handler );
+	}
+
+	/**
+	 * Returns the minimum number of milliseconds between {@link ViewportEvent#VIEWPORT_CHANGING}
+	 * events.
+	 */
+	public double getViewportChangeIntervalMillis() {
+		return viewportEvents.changeIntervalMillisProperty().get();
+	}
+
+	/**
+	 * The minimum number of milliseconds between {@link ViewportEvent#VIEWPORT_CHANGING} events. The
+	 * default is 100.
+	 */
+	public DoubleProperty viewportChangeIntervalMillisProperty() {
+		return viewportEvents.changeIntervalMillisProperty();
+	}
+
+	/**
+	 * Sets the minimum number of milliseconds between {@link ViewportEvent#VIEWPORT_CHANGING} events.
+	 */
+	public void setViewportChangeIntervalMillis( double millis ) {
+		viewportEvents.changeIntervalMillisProperty().set( millis );
+	}
+
+	/**
+	 * Returns the history recording the viewports before each pan, or null if none.
+	 *
+	 * @see #setZoomHistory(ChartZoomHistory)
+	 */
+	public ChartZoomHistory getZoomHistory() {
+		return zoomHistory;
+	}
+
+	/**
+	 * If true, a drag translates the plot content that is already rendered instead of changing the
+	 * axis bounds on every mouse move. The bounds are set, and the chart laid out again, when the
+	 * drag is released or when the content has moved by more than the
+	 * {@link #previewCommitFractionProperty() preview commit fraction} of the plot area, so that
+	 * area that was not rendered is filled in. Panning then costs the same however many points the
+	 * chart has. The default is false.
+	 */
+	public boolean isPanPreviewed() {
+		return panPreviewed.get();
+	}
+
+	/**
+	 * If true, a drag translates the rendered plot content instead of changing the axis bounds on
+	 * every mouse move.
+	 *
+	 * @see #isPanPreviewed()
+	 */
+	public BooleanProperty panPreviewedProperty() {
+		return panPreviewed;
+	}
+
+	/**
+	 * If true, a drag translates the rendered plot content instead of changing the axis bounds on
+	 * every mouse move.
+	 *
+	 * @see #isPanPreviewed()
+	 */
+	public void setPanPreviewed( boolean panPreviewed ) {
+		this.panPreviewed.set( panPreviewed );
+	}
+
+	/**
+	 * Returns the fraction of the plot width or height the content may move during a previewed
+	 * drag before the bounds are set without waiting for the release.
+	 */
+	public double getPreviewCommitFraction() {
+		return previewCommitFraction.get();
+	}
+
+	/**
+	 * Fraction of the plot width or height the content may move during a previewed drag before the
+	 * bounds are set without waiting for the release. The default is 0.5.
+	 */
+	public DoubleProperty previewCommitFractionProperty() {
+		return previewCommitFraction;
+	}
+
+	/**
+	 * Sets the fraction of the plot width or height the content may move during a previewed drag
+	 * before the bounds are set without waiting for the release.
+	 */
+	public void setPreviewCommitFraction( double fraction ) {
+		previewCommitFraction.set( fraction );
+	}
+
+	/**
+	 * Sets a {@link ChartZoomHistory} that records the viewport before each pan so that the user can
+	 * go back to it. The history can be shared with a {@link ChartZoomManager} on the same chart. The
+	 * default is null, which records nothing.
+	 */
+	public void setZoomHistory( ChartZoomHistory zoomHistory ) {
+		if ( this.zoomHistory != null )
+			this.zoomHistory.detach( this );
+		this.zoomHistory = zoomHistory;
+		if ( zoomHistory != null )
+			zoomHistory.attach( this );
+	}
+
+	/**
+	 * Sets the axis bounds as one completed pan, as used by {@link ChartZoomHistory} when going back or
+	 * forward. The bounds are set through the {@link AxisGroup}s, if any, and the viewport handlers
+	 * receive the same events as for a drag. Nothing is recorded in the history.
+	 */
+	public void setViewport( double xLower, double xUpper, double yLower, double yUpper ) {
+		viewportEvents.gestureStarted();
+		setBounds( xAxis, xAxisGroup, xLower, xUpper );
+		setBounds( yAxis, yAxisGroup, yLower, yUpper );
+		viewportEvents.settled();
+	}
+
+	/**
+	 * Tells the viewport handlers that the bounds were set by another manager sharing the history.
+	 */
+	void fireViewportSet() {
+		viewportEvents.gestureStarted();
+		viewportEvents.settled();
+	}
+
+	/**
+	 * Returns the limits applied to the viewport when panning, or null if none.
+	 *
+	 * @see #setViewportLimits(ViewportLimits)
+	 */
+	public ViewportLimits getViewportLimits() {
+		return viewportLimits;
+	}
+
+	/**
+	 * Sets {@link ViewportLimits} applied to the bounds of each drag step before they are set on the
+	 * axes, for example to keep the user from panning away from the data. The limits can be shared
+	 * with a {@link ChartZoomManager} on the same chart. The default is null, which does not limit
+	 * panning.
+	 */
+	public void setViewportLimits( ViewportLimits viewportLimits ) {
+		this.viewportLimits = viewportLimits;
+	}
+
+	/**
+	 * Returns the group the X axis bounds are applied through, or null if none.
+	 *
+	 * @see #setXAxisGroup(AxisGroup)
+	 */
+	public AxisGroup getXAxisGroup() {
+		return xAxisGroup;
+	}
+
+	/**
+	 * Sets an {@link AxisGroup} containing this chart's X axis. When set, each drag step computes the
+	 * new X bounds once and applies them to all members of the group in a single pass. The default is
+	 * null, which applies the bounds only to this chart's axis.
+	 */
+	public void setXAxisGroup( AxisGroup xAxisGroup ) {
+		this.xAxisGroup = xAxisGroup;
+	}
+
+	/**
+	 * Returns the group the Y axis bounds are applied through, or null if none.
+	 *
+	 * @see #setYAxisGroup(AxisGroup)
+	 */
+	public AxisGroup getYAxisGroup() {
+		return yAxisGroup;
+	}
+
+	/**
+	 * Sets an {@link AxisGroup} containing this chart's Y axis. When set, each drag step computes the
+	 * new Y bounds once and applies them to all members of the group in a single pass. The default is
+	 * null, which applies the bounds only to this chart's axis.
+	 */
+	public void setYAxisGroup( AxisGroup yAxisGroup ) {
+		this.yAxisGroup = yAxisGroup;
+	}
+
+	/**
+	 * Switches this manager to external dispatch and returns a {@link ChartInteraction} performing
+	 * its panning for events dispatched by a {@link ChartInteractionController}, whose target may be
+	 * the chart or one of its ancestors.
+	 * <p>
+	 * This has a permanent side effect: the manager removes its own event handlers and never
+	 * registers them again, so {@link #start()} and {@link #stop()} afterwards only enable or
+	 * disable the interaction. Calling it again returns the same interaction.
+	 */
+	public ChartInteraction useExternalDispatch() {
+		if ( interaction == null ) {
+			externallyDispatched = true;
+			handlerManager.removeAllHandlers();
+			interaction = new PanInteraction();
+		}
+		return interaction;
+	}
+
 	public void start() {
-		handlerManager.addAllHandlers();
+		if ( !externallyDispatched )
+			handlerManager.addAllHandlers();
+		started = true;
 	}
 
 	public void stop() {
 		handlerManager.removeAllHandlers();
+		started = false;
 		release();
 	}
 
@@ -141,11 +406,18 @@ public class ChartPanManager {
 		return true;
 	}
 
-	private void startDrag( MouseEvent event ) {
-		DefaultChartInputContext context = new DefaultChartInputContext( chartInfo, event.getX(), event.getY() );
+	private void startDrag( MouseEvent event, ChartInputContext context ) {
+		if ( context == null )
+			context = new DefaultChartInputContext( chartInfo, event.getX(), event.getY() );
 		panMode = axisConstraintStrategy.getConstraint( context );
 
 		if (panMode != AxisConstraint.None) {
+			panEvent = new PanEvent();
+			panEvent.begin();
+
+			if ( zoomHistory != null )
+				zoomHistory.record();
+
 			lastX = event.getX();
 			lastY = event.getY();
 
@@ -158,27 +430,128 @@ public class ChartPanManager {
 			yAxis.setAutoRanging( false );
 
 			dragging = true;
+			viewportEvents.gestureStarted();
+
+			if ( panPreviewed.get() )
+				beginPreview();
 		}
 	}
 
+	private void beginPreview() {
+		previewXLower = xAxis.getLowerBound();
+		previewXUpper = xAxis.getUpperBound();
+		previewYLower = yAxis.getLowerBound();
+		previewYUpper = yAxis.getUpperBound();
+		preview.begin( previewXLower, previewXUpper, previewYLower, previewYUpper );
+	}
+
 	private void drag( MouseEvent event ) {
 		if ( !dragging )
 			return;
 
+		if ( preview.isActive() ) {
+			dragPreview( event );
+			return;
+		}
+
+		boolean panX = panMode == AxisConstraint.Both || panMode == AxisConstraint.Horizontal;
+		boolean panY = panMode == AxisConstraint.Both || panMode == AxisConstraint.Vertical;
+		double xLower = xAxis.getLowerBound();
+		double xUpper = xAxis.getUpperBound();
+		double yLower = yAxis.getLowerBound();
+		double yUpper = yAxis.getUpperBound();
+
+		if ( panX ) {
+			double dX = ( event.getX() - lastX ) / -xAxis.getScale();
+			lastX = event.getX();
+			xLower += dX;
+			xUpper += dX;
+		}
+
+		if ( panY ) {
+			double dY = ( event.getY() - lastY ) / -yAxis.getScale();
+			lastY = event.getY();
+			yLower += dY;
+			yUpper += dY;
+		}
+
+		if ( viewportLimits != null ) {
+			Rectangle2D limited = viewportLimits.limit( xLower, xUpper, yLower, yUpper );
+			xLower = limited.getMinX();
+			xUpper = limited.getMaxX();
+			yLower = limited.getMinY();
+			yUpper = limited.getMaxY();
+		}
+
+		if ( panX )
+			setBounds( xAxis, xAxisGroup, xLower, xUpper );
+		if ( panY )
+			setBounds( yAxis, yAxisGroup, yLower, yUpper );
+
+		++panEvent.dragEvents;
+		viewportEvents.changing();
+	}
+
+	private void dragPreview( MouseEvent event ) {
+		//The axes keep their bounds during the preview, so their scale still applies
 		if ( panMode == AxisConstraint.Both || panMode == AxisConstraint.Horizontal ) {
 			double dX = ( event.getX() - lastX ) / -xAxis.getScale();
 			lastX = event.getX();
-			xAxis.setAutoRanging( false );
-			xAxis.setLowerBound( xAxis.getLowerBound() + dX );
-			xAxis.setUpperBound( xAxis.getUpperBound() + dX );
+			previewXLower += dX;
+			previewXUpper += dX;
 		}
 
 		if ( panMode == AxisConstraint.Both || panMode == AxisConstraint.Vertical ) {
 			double dY = ( event.getY() - lastY ) / -yAxis.getScale();
 			lastY = event.getY();
-			yAxis.setAutoRanging( false );
-			yAxis.setLowerBound( yAxis.getLowerBound() + dY );
-			yAxis.setUpperBound( yAxis.getUpperBound() + dY );
+			previewYLower += dY;
+			previewYUpper += dY;
+		}
+
+		if ( viewportLimits != null ) {
+			Rectangle2D limited = viewportLimits.limit( previewXLower, previewXUpper,
+			                                            previewYLower, previewYUpper );
+			if ( panMode != AxisConstraint.Vertical ) {
+				previewXLower = limited.getMinX();
+				previewXUpper = limited.getMaxX();
+			}
+			if ( panMode != AxisConstraint.Horizontal ) {
+				previewYLower = limited.getMinY();
+				previewYUpper = limited.getMaxY();
+			}
+		}
+
+		++panEvent.dragEvents;
+		preview.show( previewXLower, previewXUpper, previewYLower, previewYUpper );
+
+		double fraction = previewCommitFraction.get();
+		if ( Math.abs( preview.getTranslateX() ) > xAxis.getWidth() * fraction ||
+		     Math.abs( preview.getTranslateY() ) > yAxis.getHeight() * fraction ) {
+			commitPreview();
+			//The chart is laid out at the new bounds before it is next rendered
+			preview.begin( previewXLower, previewXUpper, previewYLower, previewYUpper );
+		}
+	}
+
+	/**
+	 * Removes the preview transform and sets the bounds panned to so far.
+	 */
+	private void commitPreview() {
+		preview.end();
+		if ( panMode == AxisConstraint.Both || panMode == AxisConstraint.Horizontal )
+			setBounds( xAxis, xAxisGroup, previewXLower, previewXUpper );
+		if ( panMode == AxisConstraint.Both || panMode == AxisConstraint.Vertical )
+			setBounds( yAxis, yAxisGroup, previewYLower, previewYUpper );
+		viewportEvents.changing();
+	}
+
+	private static void setBounds( ValueAxis<?> axis, AxisGroup group, double lower, double upper ) {
+		if ( group != null ) {
+			group.setRange( lower, upper );
+		} else {
+			axis.setAutoRanging( false );
+			axis.setLowerBound( lower );
+			axis.setUpperBound( upper );
 		}
 	}
 
@@ -188,7 +561,50 @@ public class ChartPanManager {
 
 		dragging = false;
 
+		if ( preview.isActive() )
+			commitPreview();
+
 		xAxis.setAnimated( wasXAnimated );
 		yAxis.setAnimated( wasYAnimated );
+
+		panEvent.end();
+		if ( panEvent.shouldCommit() ) {
+			panEvent.setViewport( xAxis.getLowerBound(), xAxis.getUpperBound(),
+			                      yAxis.getLowerBound(), yAxis.getUpperBound() );
+			panEvent.setChart( chartInfo.getChart() );
+			panEvent.commit();
+		}
+		panEvent = null;
+
+		viewportEvents.settled();
+	}
+
+	private class PanInteraction implements ChartInteraction {
+		@Override
+		public boolean handle( InputEvent event, ChartInputContext context ) {
+			if ( !started )
+				return false;
+
+			EventType<? extends Event> type = event.getEventType();
+			if ( type == MouseEvent.DRAG_DETECTED ) {
+				MouseEvent mouseEvent = (MouseEvent) event;
+				if ( passesFilter( mouseEvent ) )
+					startDrag( mouseEvent, context );
+				return dragging;
+
+			} else if ( type == MouseEvent.MOUSE_DRAGGED ) {
+				if ( !dragging )
+					return false;
+				drag( (MouseEvent) event );
+				return true;
+
+			} else if ( type == MouseEvent.MOUSE_RELEASED ) {
+				boolean wasDragging = dragging;
+				release();
+				return wasDragging;
+			}
+
+			return false;
+		}
 	}
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.geometry.Rectangle2D;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ChartSelectionEvent is sent by the {@link ChartZoomManager} in selection mode when the user has
+ * dragged a selection rectangle over the chart.
+ *
+ * @see ChartZoomManager#setSelectionMode(boolean)
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartSelectionEvent extends Event {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Common supertype of all selection event types.
+	 */
+	public static final EventType<ChartSelectionEvent> ANY =
+			new EventType<ChartSelectionEvent>( Event.ANY, "CHART_SELECTION" );
+
+	/**
+	 * Sent when the user releases the mouse after dragging a selection rectangle.
+	 */
+	public static final EventType<ChartSelectionEvent> SELECTED =
+			new EventType<ChartSelectionEvent>( ANY, "CHART_SELECTED" );
+
+	private final transient Rectangle2D window;
+	private final transient List<IndexRangeSet> selections;
+
+	/**
+	 * Constructs a new event.
+	 *
+	 * @param source     the manager sending the event
+	 * @param window     selected area in data coordinates
+	 * @param selections indexes selected in each of the chart's series
+	 */
+	public ChartSelectionEvent( Object source, Rectangle2D window, List<IndexRangeSet> selections ) {
+		super( source, null, SELECTED );
+		this.window = window;
+		this.selections = Collections.unmodifiableList( selections );
+	}
+
+	/**
+	 * Returns the selected area in data coordinates. Use it with
+	 * {@link SortedXYDataUtil#select(SortedXYData, Rectangle2D)} to select from data kept outside of
+	 * the chart, such as a {@link DoubleXYData}.
+	 */
+	public Rectangle2D getWindow() {
+		return window;
+	}
+
+	/**
+	 * Returns the indexes of the selected points of each series, in the order of the chart's
+	 * {@link javafx.scene.chart.XYChart#getData() data}.
+	 */
+	public List<IndexRangeSet> getSelections() {
+		return selections;
+	}
+
+	@Override
+	public String toString() {
+		return "ChartSelectionEvent{" +
+		       "window=" + window +
+		       ", selections=" + selections +
+		       '}';
+	}
+}
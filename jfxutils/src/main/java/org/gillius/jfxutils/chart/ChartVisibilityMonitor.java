@@ -0,0 +1,263 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ChartVisibilityMonitor tracks whether a node, typically a chart, is actually showing on screen.
+ * The node is showing when:
+ * <ul>
+ *   <li>it and all of its ancestors are {@link Node#isVisible() visible}</li>
+ *   <li>it is in a {@link Scene} whose {@link Window} is showing and, for a {@link Stage}, not
+ *       iconified (minimized)</li>
+ *   <li>if {@link #clipCheckedProperty() clipChecked}, some part of it is inside the scene and inside
+ *       the clip of every ancestor with one, so a chart scrolled out of a ScrollPane's viewport is
+ *       not showing</li>
+ * </ul>
+ * The structural conditions are tracked with listeners. The clip condition depends on the position
+ * of the node, so it is rechecked after each layout pass through the scene's post layout pulse
+ * listener.
+ * <p>
+ * Pair it with a {@link BufferedSeriesAppender} so that a chart that is not showing receives no data
+ * changes, and therefore does no layout, while its data is buffered and then applied in one batch
+ * when it shows again:
+ * <pre>
+ChartVisibilityMonitor monitor = new ChartVisibilityMonitor( chart );
+BufferedSeriesAppender&lt;Number, Number&gt; appender =
+    new BufferedSeriesAppender&lt;Number, Number&gt;( series, monitor.showingProperty() );</pre>
+ * Content of a tab made lazy with {@link org.gillius.jfxutils.tab.TabUtil#makeLazy} is removed from
+ * the scene while the tab is not selected, and so is also reported as not showing.
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartVisibilityMonitor {
+	private final Node node;
+
+	private final ReadOnlyBooleanWrapper showing = new ReadOnlyBooleanWrapper( this, "showing", false );
+
+	private final BooleanProperty clipChecked = new SimpleBooleanProperty( this, "clipChecked", true ) {
+		@Override
+		protected void invalidated() {
+			clipped = false;
+			update();
+		}
+	};
+
+	/**
+	 * The node and its ancestors, whose visible and parent properties are listened to.
+	 */
+	private final List<Node> chain = new ArrayList<Node>();
+
+	private Scene scene;
+	private Window window;
+
+	private boolean clipped = false;
+
+	private final InvalidationListener updateListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			update();
+		}
+	};
+
+	private final InvalidationListener chainListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			rebuildChain();
+			update();
+		}
+	};
+
+	private final InvalidationListener sceneListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			setScene( node.getScene() );
+			update();
+		}
+	};
+
+	private final InvalidationListener windowListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			setWindow( scene == null ? null : scene.getWindow() );
+			update();
+		}
+	};
+
+	private final Runnable postLayoutListener = new Runnable() {
+		@Override
+		public void run() {
+			boolean newClipped = clipChecked.get() && isClipped();
+			if ( newClipped != clipped ) {
+				clipped = newClipped;
+				update();
+			}
+		}
+	};
+
+	/**
+	 * Starts monitoring the node.
+	 */
+	public ChartVisibilityMonitor( Node node ) {
+		this.node = node;
+		rebuildChain();
+		node.sceneProperty().addListener( sceneListener );
+		setScene( node.getScene() );
+		update();
+	}
+
+	public Node getNode() {
+		return node;
+	}
+
+	public boolean isShowing() {
+		return showing.get();
+	}
+
+	/**
+	 * True while the node is showing on screen.
+	 */
+	public ReadOnlyBooleanProperty showingProperty() {
+		return showing.getReadOnlyProperty();
+	}
+
+	public boolean isClipChecked() {
+		return clipChecked.get();
+	}
+
+	/**
+	 * If true (the default), a node entirely outside of the scene or of an ancestor's clip is not
+	 * showing.
+	 */
+	public BooleanProperty clipCheckedProperty() {
+		return clipChecked;
+	}
+
+	public void setClipChecked( boolean clipChecked ) {
+		this.clipChecked.set( clipChecked );
+	}
+
+	/**
+	 * Stops monitoring the node. The showing property keeps its last value.
+	 */
+	public void dispose() {
+		clearChain();
+		node.sceneProperty().removeListener( sceneListener );
+		setScene( null );
+	}
+
+	private void rebuildChain() {
+		clearChain();
+		for ( Node curr = node; curr != null; curr = curr.getParent() ) {
+			curr.visibleProperty().addListener( updateListener );
+			curr.parentProperty().addListener( chainListener );
+			chain.add( curr );
+		}
+	}
+
+	private void clearChain() {
+		for ( Node curr : chain ) {
+			curr.visibleProperty().removeListener( updateListener );
+			curr.parentProperty().removeListener( chainListener );
+		}
+		chain.clear();
+	}
+
+	private void setScene( Scene newScene ) {
+		if ( newScene == scene )
+			return;
+
+		if ( scene != null ) {
+			scene.windowProperty().removeListener( windowListener );
+			scene.removePostLayoutPulseListener( postLayoutListener );
+		}
+		scene = newScene;
+		if ( scene != null ) {
+			scene.windowProperty().addListener( windowListener );
+			scene.addPostLayoutPulseListener( postLayoutListener );
+		}
+		setWindow( scene == null ? null : scene.getWindow() );
+	}
+
+	private void setWindow( Window newWindow ) {
+		if ( newWindow == window )
+			return;
+
+		if ( window != null ) {
+			window.showingProperty().removeListener( updateListener );
+			if ( window instanceof Stage )
+				( (Stage) window ).iconifiedProperty().removeListener( updateListener );
+		}
+		window = newWindow;
+		if ( window != null ) {
+			window.showingProperty().addListener( updateListener );
+			if ( window instanceof Stage )
+				( (Stage) window ).iconifiedProperty().addListener( updateListener );
+		}
+	}
+
+	private void update() {
+		showing.set( computeShowing() );
+	}
+
+	private boolean computeShowing() {
+		if ( scene == null || window == null || !window.isShowing() || clipped )
+			return false;
+		if ( window instanceof Stage && ( (Stage) window ).isIconified() )
+			return false;
+		for ( Node curr : chain ) {
+			if ( !curr.isVisible() )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the node is entirely outside of the scene or of the clip of an ancestor.
+	 */
+	private boolean isClipped() {
+		if ( scene == null )
+			return false;
+
+		Bounds bounds = node.localToScene( node.getBoundsInLocal() );
+		if ( !bounds.intersects( new BoundingBox( 0.0, 0.0, scene.getWidth(), scene.getHeight() ) ) )
+			return true;
+
+		for ( Parent curr = node.getParent(); curr != null; curr = curr.getParent() ) {
+			Node clip = curr.getClip();
+			if ( clip != null && !bounds.intersects( curr.localToScene( clip.getBoundsInParent() ) ) )
+				return true;
+		}
+		return false;
+	}
+}
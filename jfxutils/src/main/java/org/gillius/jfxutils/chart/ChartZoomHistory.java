@@ -0,0 +1,327 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.ValueAxis;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ChartZoomHistory keeps a bounded back/forward history of the viewports (axis bounds) of an
+ * {@link XYChart}. The {@link ChartZoomManager} and {@link ChartPanManager} record an entry at the
+ * start of each gesture when a history is set on them via their setZoomHistory methods, so that
+ * the user can step back to previous zoom levels without auto ranging the chart.
+ * <p>
+ * Each {@link Entry} has a small cache where the application can keep results it computed for that
+ * viewport, such as decimated point sets or tick values. As the same Entry object is returned when
+ * navigating back or forward, restoring a viewport can reuse those results instead of recomputing
+ * them from the raw data. The oldest entries (and their caches) are discarded once the history
+ * holds more than its maximum number of entries.
+ * <p>
+ * When the history is set on a zoom or pan manager, going back or forward sets the bounds through that
+ * manager, so its {@link AxisGroup}s are updated together and its {@link ViewportEvent} handlers see a
+ * settled viewport, as after a gesture. Otherwise the bounds are set directly on the axes.
+ * <p>
+ * Both axes must be supported by {@link AxisBoundsAdapters}, for example a {@link ValueAxis}.
+ *
+ * @author Jason Winnebeck
+ */
+public class ChartZoomHistory {
+	/**
+	 * The default maximum number of entries kept in each direction of the history.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 50;
+
+	private final Axis<?> xAxis;
+	private final Axis<?> yAxis;
+	private final AxisBoundsAdapter xBounds;
+	private final AxisBoundsAdapter yBounds;
+	private final int maxEntries;
+
+	private final Deque<Entry> backEntries = new ArrayDeque<Entry>();
+	private final Deque<Entry> forwardEntries = new ArrayDeque<Entry>();
+
+	private final ReadOnlyBooleanWrapper backAvailable = new ReadOnlyBooleanWrapper( false );
+	private final ReadOnlyBooleanWrapper forwardAvailable = new ReadOnlyBooleanWrapper( false );
+
+	/**
+	 * Entry for the viewport currently shown, or null if the chart has moved since the last time the
+	 * current entry was requested or restored.
+	 */
+	private Entry current;
+
+	/**
+	 * Managers this history is set on, which apply restored viewports, or null.
+	 */
+	private ChartZoomManager zoomManager;
+	private ChartPanManager panManager;
+
+	/**
+	 * Constructs a history with {@link #DEFAULT_MAX_ENTRIES}.
+	 */
+	public ChartZoomHistory( XYChart<?, ?> chart ) {
+		this( chart, DEFAULT_MAX_ENTRIES );
+	}
+
+	/**
+	 * Constructs a history for the given chart.
+	 *
+	 * @param chart      chart whose axes are both supported by {@link AxisBoundsAdapters}
+	 * @param maxEntries maximum number of entries kept in each direction, must be at least 1
+	 */
+	public ChartZoomHistory( XYChart<?, ?> chart, int maxEntries ) {
+		if ( maxEntries < 1 )
+			throw new IllegalArgumentException( "maxEntries must be at least 1" );
+
+		this.xAxis = chart.getXAxis();
+		this.yAxis = chart.getYAxis();
+		this.xBounds = AxisBoundsAdapters.forAxis( xAxis );
+		this.yBounds = AxisBoundsAdapters.forAxis( yAxis );
+		if ( xBounds == null || yBounds == null )
+			throw new IllegalArgumentException( "Axis type not supported" );
+		this.maxEntries = maxEntries;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Records the currently displayed viewport as a point to go back to, and clears the forward
+	 * history. This is called by the zoom and pan managers before they change the axes; call it
+	 * directly before changing the bounds programmatically if that change should be undoable.
+	 */
+	public void record() {
+		push( backEntries, getCurrentEntry() );
+		current = null;
+		forwardEntries.clear();
+		updateAvailable();
+	}
+
+	/**
+	 * Returns true if there is an entry to go back to.
+	 */
+	public boolean isBackAvailable() {
+		return backAvailable.get();
+	}
+
+	/**
+	 * True if there is an entry to go back to.
+	 */
+	public ReadOnlyBooleanProperty backAvailableProperty() {
+		return backAvailable.getReadOnlyProperty();
+	}
+
+	/**
+	 * Returns true if there is an entry to go forward to.
+	 */
+	public boolean isForwardAvailable() {
+		return forwardAvailable.get();
+	}
+
+	/**
+	 * True if there is an entry to go forward to.
+	 */
+	public ReadOnlyBooleanProperty forwardAvailableProperty() {
+		return forwardAvailable.getReadOnlyProperty();
+	}
+
+	/**
+	 * Restores the previous viewport, if any.
+	 *
+	 * @return the restored entry, or null if there was no entry to go back to
+	 */
+	public Entry back() {
+		return navigate( backEntries, forwardEntries );
+	}
+
+	/**
+	 * Restores the next viewport after going {@link #back()}, if any.
+	 *
+	 * @return the restored entry, or null if there was no entry to go forward to
+	 */
+	public Entry forward() {
+		return navigate( forwardEntries, backEntries );
+	}
+
+	/**
+	 * Removes all entries from the history.
+	 */
+	public void clear() {
+		backEntries.clear();
+		forwardEntries.clear();
+		current = null;
+		updateAvailable();
+	}
+
+	/**
+	 * Returns the entry for the viewport currently shown. If the chart has not moved since the last
+	 * call, the same Entry is returned, so results placed in its cache can be reused.
+	 */
+	public Entry getCurrentEntry() {
+		double xLower = xBounds.lowerBoundProperty().get();
+		double xUpper = xBounds.upperBoundProperty().get();
+		double yLower = yBounds.lowerBoundProperty().get();
+		double yUpper = yBounds.upperBoundProperty().get();
+		if ( current == null || !current.matches( xLower, xUpper, yLower, yUpper ) )
+			current = new Entry( xLower, xUpper, yLower, yUpper );
+		return current;
+	}
+
+	void attach( ChartZoomManager manager ) {
+		zoomManager = manager;
+	}
+
+	void attach( ChartPanManager manager ) {
+		panManager = manager;
+	}
+
+	/**
+	 * Stops applying viewports through the manager, if this history was set on it.
+	 */
+	void detach( Object manager ) {
+		if ( zoomManager == manager )
+			zoomManager = null;
+		if ( panManager == manager )
+			panManager = null;
+	}
+
+	private Entry navigate( Deque<Entry> from, Deque<Entry> to ) {
+		if ( from.isEmpty() )
+			return null;
+
+		push( to, getCurrentEntry() );
+		current = from.pop();
+		apply( current );
+		updateAvailable();
+		return current;
+	}
+
+	private void push( Deque<Entry> entries, Entry entry ) {
+		entries.push( entry );
+		while ( entries.size() > maxEntries )
+			entries.removeLast();
+	}
+
+	private void updateAvailable() {
+		backAvailable.set( !backEntries.isEmpty() );
+		forwardAvailable.set( !forwardEntries.isEmpty() );
+	}
+
+	private void apply( Entry entry ) {
+		if ( zoomManager != null ) {
+			zoomManager.setViewport( entry.xLower, entry.xUpper, entry.yLower, entry.yUpper );
+			//A pan manager sharing the history tells its own viewport handlers as well
+			if ( panManager != null )
+				panManager.fireViewportSet();
+		} else if ( panManager != null ) {
+			panManager.setViewport( entry.xLower, entry.xUpper, entry.yLower, entry.yUpper );
+		} else {
+			xAxis.setAutoRanging( false );
+			yAxis.setAutoRanging( false );
+			xBounds.lowerBoundProperty().set( entry.xLower );
+			xBounds.upperBoundProperty().set( entry.xUpper );
+			yBounds.lowerBoundProperty().set( entry.yLower );
+			yBounds.upperBoundProperty().set( entry.yUpper );
+		}
+	}
+
+	/**
+	 * An entry in the {@link ChartZoomHistory}, holding a viewport in data coordinates and a cache
+	 * for results computed for that viewport.
+	 */
+	public static class Entry {
+		private final double xLower;
+		private final double xUpper;
+		private final double yLower;
+		private final double yUpper;
+		private Map<Object, Object> cache;
+
+		private Entry( double xLower, double xUpper, double yLower, double yUpper ) {
+			this.xLower = xLower;
+			this.xUpper = xUpper;
+			this.yLower = yLower;
+			this.yUpper = yUpper;
+		}
+
+		public double getXLowerBound() {
+			return xLower;
+		}
+
+		public double getXUpperBound() {
+			return xUpper;
+		}
+
+		public double getYLowerBound() {
+			return yLower;
+		}
+
+		public double getYUpperBound() {
+			return yUpper;
+		}
+
+		/**
+		 * Returns the viewport in data coordinates, where minX/maxX are the X axis lower and upper
+		 * bounds and minY/maxY are the Y axis lower and upper bounds.
+		 *
+		 * @throws IllegalArgumentException if an axis was inverted (upper below lower) when the entry
+		 *                                  was recorded; use the bound getters in that case
+		 */
+		public Rectangle2D getViewport() {
+			return new Rectangle2D( xLower, yLower, xUpper - xLower, yUpper - yLower );
+		}
+
+		@SuppressWarnings( "FloatingPointEquality" )
+		private boolean matches( double xLower, double xUpper, double yLower, double yUpper ) {
+			return this.xLower == xLower && this.xUpper == xUpper &&
+			       this.yLower == yLower && this.yUpper == yUpper;
+		}
+
+		/**
+		 * Returns the value cached under the given key for this viewport, or null if none.
+		 */
+		public Object getCachedValue( Object key ) {
+			return cache == null ? null : cache.get( key );
+		}
+
+		/**
+		 * Caches a value computed for this viewport, such as a decimated series, under the given key.
+		 * The value is kept for as long as the entry remains in the history.
+		 */
+		public void putCachedValue( Object key, Object value ) {
+			if ( cache == null )
+				cache = new HashMap<Object, Object>();
+			cache.put( key, value );
+		}
+
+		@Override
+		public String toString() {
+			return "Entry{" +
+			       "x=[" + xLower + ", " + xUpper + "]" +
+			       ", y=[" + yLower + ", " + yUpper + "]" +
+			       '}';
+		}
+	}
+}
@@ -22,6 +22,7 @@ import javafx.animation.Timeline;
 import javafx.beans.property.*;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.event.ActionEvent;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.event.EventType;
@@ -30,6 +31,7 @@ import javafx.geometry.Rectangle2D;
 import javafx.scene.chart.Axis;
 import javafx.scene.chart.ValueAxis;
 import javafx.scene.chart.XYChart;
+import javafx.scene.input.InputEvent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
@@ -37,8 +39,10 @@ import javafx.scene.layout.Pane;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
 import org.gillius.jfxutils.EventHandlerManager;
+import org.gillius.jfxutils.chart.ChartFlightEvents.ZoomEvent;
 
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * ChartZoomManager manages a zooming selection rectangle and the bounds of the graph. It can be
@@ -111,7 +115,12 @@ public class ChartZoomManager {
 
 	private final DoubleProperty zoomDurationMillis = new SimpleDoubleProperty( 750.0 );
 	private final BooleanProperty zoomAnimated = new SimpleBooleanProperty( true );
+	private final BooleanProperty zoomPreviewed = new SimpleBooleanProperty( false );
 	private final BooleanProperty mouseWheelZoomAllowed = new SimpleBooleanProperty( true );
+	private final BooleanProperty selectionMode = new SimpleBooleanProperty( false );
+
+	private final List<EventHandler<? super ChartSelectionEvent>> selectionHandlers =
+			new ArrayList<EventHandler<? super ChartSelectionEvent>>();
 
 	private AxisConstraint zoomMode = AxisConstraint.None;
 	private AxisConstraintStrategy axisConstraintStrategy = AxisConstraintStrategies.getIgnoreOutsideChart();
@@ -119,6 +128,13 @@ public class ChartZoomManager {
 
 	private EventHandler<? super MouseEvent> mouseFilter = DEFAULT_FILTER;
 
+	private ChartZoomHistory zoomHistory;
+
+	private ViewportLimits viewportLimits;
+
+	private AxisGroup xAxisGroup;
+	private AxisGroup yAxisGroup;
+
 	private final EventHandlerManager handlerManager;
 
 	private final Rectangle selectRect;
@@ -132,30 +148,81 @@ public class ChartZoomManager {
 
 	private final Timeline zoomAnimation = new Timeline();
 
+	private final PlotContentPreview preview;
+
+	/**
+	 * Follows which series are sorted by X for {@link #selectAll}, created on the first selection.
+	 */
+	private SeriesSortTracker sortTracker;
+
+	/**
+	 * Fraction of the way from {@link #previewFrom} to {@link #previewTo} of a previewed zoom
+	 * animation.
+	 */
+	private final DoubleProperty previewProgress = new SimpleDoubleProperty() {
+		@Override
+		protected void invalidated() {
+			if ( preview.isActive() ) {
+				Rectangle2D bounds = getPreviewBounds( get() );
+				preview.show( bounds.getMinX(), bounds.getMaxX(), bounds.getMinY(), bounds.getMaxY() );
+			}
+		}
+	};
+
+	private Rectangle2D previewFrom;
+	private Rectangle2D previewTo;
+
+	private final MouseWheelZoomHandler mouseWheelZoomHandler = new MouseWheelZoomHandler();
+
+	private boolean started = false;
+
+	/**
+	 * True once {@link #useExternalDispatch()} has been called, after which events come from a
+	 * {@link ChartInteractionController} instead of this manager's own handlers.
+	 */
+	private boolean externallyDispatched = false;
+
+	private ChartInteraction interaction;
+
+	/**
+	 * Flight recorder event of the box zoom being animated, ended when the animation stops.
+	 */
+	private ZoomEvent animatingZoomEvent;
+
+	private final ViewportEventSupport viewportEvents = new ViewportEventSupport( this ) {
+		@Override
+		protected Rectangle2D getViewport() {
+			return new Rectangle2D( getXAxisLowerBound(), getYAxisLowerBound(),
+			                        getXAxisUpperBound() - getXAxisLowerBound(),
+			                        getYAxisUpperBound() - getYAxisLowerBound() );
+		}
+	};
+
 	/**
 	 * Construct a new ChartZoomManager. See {@link ChartZoomManager} documentation for normal usage.
 	 *
 	 * @param chartPane  A Pane which is the ancestor of all arguments
 	 * @param selectRect A Rectangle whose layoutX/Y makes it line up with the chart
-	 * @param chart      Chart to manage, where both X and Y axis are a {@link ValueAxis}.
+	 * @param chart      Chart to manage, where both X and Y axis are supported by
+	 *                   {@link AxisBoundsAdapters}, for example a {@link ValueAxis}.
 	 */
 	public <X,Y> ChartZoomManager( Pane chartPane, Rectangle selectRect, XYChart<X,Y> chart ) {
 		this.selectRect = selectRect;
 		this.xAxis = chart.getXAxis();
-		this.xAxisLowerBoundProperty = getLowerBoundProperty(xAxis);
-		this.xAxisUpperBoundProperty = getUpperBoundProperty(xAxis);
 		this.yAxis = chart.getYAxis();
-		this.yAxisLowerBoundProperty = getLowerBoundProperty(yAxis);
-		this.yAxisUpperBoundProperty = getUpperBoundProperty(yAxis);
-
-		if (
-			xAxisLowerBoundProperty == null || xAxisUpperBoundProperty == null ||
-			yAxisLowerBoundProperty == null || yAxisUpperBoundProperty == null
-		) {
-			throw new IllegalArgumentException("Axis type not supported");
-		}
+
+		AxisBoundsAdapter xBounds = AxisBoundsAdapters.forAxis( xAxis );
+		AxisBoundsAdapter yBounds = AxisBoundsAdapters.forAxis( yAxis );
+		if ( xBounds == null || yBounds == null )
+			throw new IllegalArgumentException( "Axis type not supported" );
+
+		this.xAxisLowerBoundProperty = xBounds.lowerBoundProperty();
+		this.xAxisUpperBoundProperty = xBounds.upperBoundProperty();
+		this.yAxisLowerBoundProperty = yBounds.lowerBoundProperty();
+		this.yAxisUpperBoundProperty = yBounds.upperBoundProperty();
 
 		chartInfo = new XYChartInfo( chart, chartPane );
+		preview = new PlotContentPreview( chart );
 
 		handlerManager = new EventHandlerManager( chartPane );
 
@@ -163,7 +230,7 @@ public class ChartZoomManager {
 			@Override
 			public void handle( MouseEvent mouseEvent ) {
 				if ( passesFilter( mouseEvent ) )
-					onMousePressed( mouseEvent );
+					onMousePressed( mouseEvent, null );
 			}
 		} );
 
@@ -191,7 +258,26 @@ public class ChartZoomManager {
 			}
 		} );
 
-		handlerManager.addEventHandler( false, ScrollEvent.ANY, new MouseWheelZoomHandler() );
+		handlerManager.addEventHandler( false, ScrollEvent.ANY, mouseWheelZoomHandler );
+
+		zoomAnimation.currentTimeProperty().addListener( new ChangeListener<Duration>() {
+			@Override
+			public void changed( ObservableValue<? extends Duration> observable, Duration oldValue, Duration newValue ) {
+				viewportEvents.changing();
+			}
+		} );
+		zoomAnimation.setOnFinished( new EventHandler<ActionEvent>() {
+			@Override
+			public void handle( ActionEvent event ) {
+				if ( preview.isActive() )
+					endPreview( 1.0 );
+				if ( animatingZoomEvent != null ) {
+					commitZoomEvent( animatingZoomEvent, "box", true );
+					animatingZoomEvent = null;
+				}
+				viewportEvents.settled();
+			}
+		} );
 	}
 
 	/**
@@ -253,6 +339,38 @@ public class ChartZoomManager {
 		this.zoomAnimated.set( zoomAnimated );
 	}
 
+	/**
+	 * If true, and the zoom is {@link #zoomAnimatedProperty() animated}, the box zoom animation
+	 * transforms the plot content that is already rendered instead of changing the axis bounds on
+	 * every frame. The bounds are set once, and the chart laid out again, when the animation ends.
+	 * This keeps the animation smooth on charts with many points, at the cost of the axes jumping to
+	 * their new ticks at the end and of scaled line widths during the animation. The default is
+	 * false.
+	 */
+	public boolean isZoomPreviewed() {
+		return zoomPreviewed.get();
+	}
+
+	/**
+	 * If true, the box zoom animation transforms the rendered plot content instead of changing the
+	 * axis bounds on every frame.
+	 *
+	 * @see #isZoomPreviewed()
+	 */
+	public BooleanProperty zoomPreviewedProperty() {
+		return zoomPreviewed;
+	}
+
+	/**
+	 * If true, the box zoom animation transforms the rendered plot content instead of changing the
+	 * axis bounds on every frame.
+	 *
+	 * @see #isZoomPreviewed()
+	 */
+	public void setZoomPreviewed( boolean zoomPreviewed ) {
+		this.zoomPreviewed.set( zoomPreviewed );
+	}
+
 	/**
 	 * Returns the number of milliseconds the zoom animation takes.
 	 */
@@ -295,6 +413,110 @@ public class ChartZoomManager {
 		mouseWheelZoomAllowed.set( allowed );
 	}
 
+	/**
+	 * If true, dragging a rectangle selects the data points under it instead of zooming.
+	 */
+	public boolean isSelectionMode() {
+		return selectionMode.get();
+	}
+
+	/**
+	 * If true, dragging a rectangle selects the data points under it instead of zooming. The
+	 * rectangle follows the same {@link AxisConstraintStrategy} and mouse filter as zooming. When the
+	 * mouse is released, the handlers added via {@link #addSelectionHandler(EventHandler)} receive a
+	 * {@link ChartSelectionEvent} with the indexes of the selected points of each series. Series
+	 * sorted by X are searched by binary search on X, and other series, such as those of a
+	 * ScatterChart, are scanned in full. Whether each series is sorted is followed as its data
+	 * changes, rather than checked on each selection. The default is false.
+	 */
+	public BooleanProperty selectionModeProperty() {
+		return selectionMode;
+	}
+
+	/**
+	 * If true, dragging a rectangle selects the data points under it instead of zooming.
+	 *
+	 * @see #selectionModeProperty()
+	 */
+	public void setSelectionMode( boolean selectionMode ) {
+		this.selectionMode.set( selectionMode );
+	}
+
+	/**
+	 * Adds a handler for the {@link ChartSelectionEvent}s sent in selection mode.
+	 */
+	public void addSelectionHandler( EventHandler<? super ChartSelectionEvent> handler ) {
+		selectionHandlers.add( handler );
+	}
+
+	/**
+	 * Removes a handler added by {@link #addSelectionHandler(EventHandler)}.
+	 */
+	public void removeSelectionHandler( EventHandler<? super ChartSelectionEvent> handler ) {
+		selectionHandlers.remove( handler );
+	}
+
+	/**
+	 * Adds a handler for the {@link ViewportEvent}s sent as zooming changes the axis bounds.
+	 */
+	public void addViewportHandler( EventHandler<? super ViewportEvent> handler ) {
+		viewportEvents.addHandler( handler );
+	}
+
+	/**
+	 * Removes a handler added by {@link #addViewportHandler(EventHandler)}.
+	 */
+	public void removeViewportHandler( EventHandler<? super ViewportEvent> handler ) {
+		viewportEvents.removeHandler( handler );
+	}
+
+	/**
+	 * Returns the minimum number of milliseconds between {@link ViewportEvent#VIEWPORT_CHANGING}
+	 * events.
+	 */
+	public double getViewportChangeIntervalMillis() {
+		return viewportEvents.changeIntervalMillisProperty().get();
+	}
+
+	/**
+	 * The minimum number of milliseconds between {@link ViewportEvent#VIEWPORT_CHANGING} events. The
+	 * default is 100.
+	 */
+	public DoubleProperty viewportChangeIntervalMillisProperty() {
+		return viewportEvents.changeIntervalMillisProperty();
+	}
+
+	/**
+	 * Sets the minimum number of milliseconds between {@link ViewportEvent#VIEWPORT_CHANGING} events.
+	 */
+	public void setViewportChangeIntervalMillis( double millis ) {
+		viewportEvents.changeIntervalMillisProperty().set( millis );
+	}
+
+	/**
+	 * Returns the number of milliseconds after the last mouse wheel zoom before the viewport is
+	 * considered settled.
+	 */
+	public double getViewportSettleDelayMillis() {
+		return viewportEvents.settleDelayMillisProperty().get();
+	}
+
+	/**
+	 * The number of milliseconds after the last mouse wheel zoom before the viewport is considered
+	 * settled, as the mouse wheel has no explicit end of gesture. The default is 250.
+	 */
+	public DoubleProperty viewportSettleDelayMillisProperty() {
+		return viewportEvents.settleDelayMillisProperty();
+	}
+
+	/**
+	 * Sets the number of milliseconds after the last mouse wheel zoom before the viewport is
+	 * considered settled.
+	 */
+	public void setViewportSettleDelayMillis( double millis ) {
+		viewportEvents.settleDelayMillisProperty().set( millis );
+	}
+
 	/**
 	 * Returns the mouse filter.
 	 *
@@ -313,11 +535,128 @@ public class ChartZoomManager {
 		this.mouseFilter = mouseFilter;
 	}
 
+	/**
+	 * Returns the history recording the viewports before each zoom, or null if none.
+	 *
+	 * @see #setZoomHistory(ChartZoomHistory)
+	 */
+	public ChartZoomHistory getZoomHistory() {
+		return zoomHistory;
+	}
+
+	/**
+	 * Sets a {@link ChartZoomHistory} that records the viewport before each zoom so that the user can
+	 * go back to it. A series of mouse wheel events close together in time is recorded as a single
+	 * entry. The history can be shared with a {@link ChartPanManager} on the same chart. The default
+	 * is null, which records nothing.
+	 */
+	public void setZoomHistory( ChartZoomHistory zoomHistory ) {
+		if ( this.zoomHistory != null )
+			this.zoomHistory.detach( this );
+		this.zoomHistory = zoomHistory;
+		if ( zoomHistory != null )
+			zoomHistory.attach( this );
+	}
+
+	/**
+	 * Sets the axis bounds as one settled zoom, as used by {@link ChartZoomHistory} when going back or
+	 * forward. The bounds are set through the {@link AxisGroup}s, if any, and the viewport handlers
+	 * receive the same events as for a zoom without animation. Nothing is recorded in the history.
+	 */
+	public void setViewport( double xLower, double xUpper, double yLower, double yUpper ) {
+		stopZoomAnimation();
+		ZoomEvent zoomEvent = new ZoomEvent();
+		zoomEvent.begin();
+		viewportEvents.gestureStarted();
+
+		xAxis.setAutoRanging( false );
+		yAxis.setAutoRanging( false );
+		setXAxisBounds( xLower, xUpper );
+		setYAxisBounds( yLower, yUpper );
+		commitZoomEvent( zoomEvent, "viewport", false );
+		viewportEvents.settled();
+	}
+
+	/**
+	 * Returns the limits applied to the viewport when zooming, or null if none.
+	 *
+	 * @see #setViewportLimits(ViewportLimits)
+	 */
+	public ViewportLimits getViewportLimits() {
+		return viewportLimits;
+	}
+
+	/**
+	 * Sets {@link ViewportLimits} applied to the bounds of each zoom before they are set on the axes,
+	 * for example to keep the user from zooming far out of the data. The limits can be shared with a
+	 * {@link ChartPanManager} on the same chart. The default is null, which does not limit zooming.
+	 */
+	public void setViewportLimits( ViewportLimits viewportLimits ) {
+		this.viewportLimits = viewportLimits;
+	}
+
+	/**
+	 * Returns the group the X axis bounds are applied through, or null if none.
+	 *
+	 * @see #setXAxisGroup(AxisGroup)
+	 */
+	public AxisGroup getXAxisGroup() {
+		return xAxisGroup;
+	}
+
+	/**
+	 * Sets an {@link AxisGroup} containing this chart's X axis. When set, zooming computes the new X
+	 * bounds once and applies them to all members of the group in a single pass, including during
+	 * the zoom animation. The default is null, which applies the bounds only to this chart's axis.
+	 */
+	public void setXAxisGroup( AxisGroup xAxisGroup ) {
+		this.xAxisGroup = xAxisGroup;
+	}
+
+	/**
+	 * Returns the group the Y axis bounds are applied through, or null if none.
+	 *
+	 * @see #setYAxisGroup(AxisGroup)
+	 */
+	public AxisGroup getYAxisGroup() {
+		return yAxisGroup;
+	}
+
+	/**
+	 * Sets an {@link AxisGroup} containing this chart's Y axis. When set, zooming computes the new Y
+	 * bounds once and applies them to all members of the group in a single pass, including during
+	 * the zoom animation. The default is null, which applies the bounds only to this chart's axis.
+	 */
+	public void setYAxisGroup( AxisGroup yAxisGroup ) {
+		this.yAxisGroup = yAxisGroup;
+	}
+
+	/**
+	 * Switches this manager to external dispatch and returns a {@link ChartInteraction} performing
+	 * its zooming (and selection) for events dispatched by a {@link ChartInteractionController}. The
+	 * controller's target must be the chartPane given to this manager.
+	 * <p>
+	 * This has a permanent side effect: the manager removes its own event handlers and never
+	 * registers them again, so {@link #start()} and {@link #stop()} afterwards only enable or
+	 * disable the interaction and the rectangle bindings. Calling it again returns the same
+	 * interaction.
+	 */
+	public ChartInteraction useExternalDispatch() {
+		if ( interaction == null ) {
+			externallyDispatched = true;
+			handlerManager.removeAllHandlers();
+			interaction = new ZoomInteraction();
+		}
+		return interaction;
+	}
+
 	/**
 	 * Start managing zoom management by adding event handlers and bindings as appropriate.
 	 */
 	public void start() {
-		handlerManager.addAllHandlers();
+		if ( !externallyDispatched )
+			handlerManager.addAllHandlers();
+		started = true;
 
 		selectRect.widthProperty().bind( rectX.subtract( selectRect.translateXProperty() ) );
 		selectRect.heightProperty().bind( rectY.subtract( selectRect.translateYProperty() ) );
@@ -330,10 +669,15 @@ public class ChartZoomManager {
 	 */
 	public void stop() {
 		handlerManager.removeAllHandlers();
+		started = false;
 		selecting.set( false );
 		selectRect.widthProperty().unbind();
 		selectRect.heightProperty().unbind();
 		selectRect.visibleProperty().unbind();
+		if ( sortTracker != null ) {
+			sortTracker.dispose();
+			sortTracker = null;
+		}
 	}
 
 	private boolean passesFilter( MouseEvent event ) {
@@ -347,12 +691,13 @@ public class ChartZoomManager {
 		return true;
 	}
 
-	private void onMousePressed( MouseEvent mouseEvent ) {
+	private void onMousePressed( MouseEvent mouseEvent, ChartInputContext context ) {
 		double x = mouseEvent.getX();
 		double y = mouseEvent.getY();
 
 		Rectangle2D plotArea = chartInfo.getPlotArea();
-		DefaultChartInputContext context = new DefaultChartInputContext( chartInfo, x, y );
+		if ( context == null )
+			context = new DefaultChartInputContext( chartInfo, x, y );
 		zoomMode = axisConstraintStrategy.getConstraint(context);
 
 		if ( zoomMode == AxisConstraint.Both ) {
@@ -423,36 +768,140 @@ public class ChartZoomManager {
 				rectX.get(), rectY.get()
 		);
 
+		if ( selectionMode.get() ) {
+			selecting.set( false );
+			fireSelection( zoomWindow );
+			return;
+		}
+
+		if ( viewportLimits != null )
+			zoomWindow = viewportLimits.limit( zoomWindow.getMinX(), zoomWindow.getMaxX(),
+			                                   zoomWindow.getMinY(), zoomWindow.getMaxY() );
+
+		stopZoomAnimation();
+		ZoomEvent zoomEvent = new ZoomEvent();
+		zoomEvent.begin();
+
+		if ( zoomHistory != null )
+			zoomHistory.record();
+		viewportEvents.gestureStarted();
+
 		xAxis.setAutoRanging( false );
 		yAxis.setAutoRanging( false );
-		if ( zoomAnimated.get() ) {
-			zoomAnimation.stop();
+		if ( zoomAnimated.get() && zoomPreviewed.get() &&
+		     preview.begin( getXAxisLowerBound(), getXAxisUpperBound(),
+		                    getYAxisLowerBound(), getYAxisUpperBound() ) ) {
+			previewFrom = new Rectangle2D( getXAxisLowerBound(), getYAxisLowerBound(),
+			                               getXAxisUpperBound() - getXAxisLowerBound(),
+			                               getYAxisUpperBound() - getYAxisLowerBound() );
+			previewTo = zoomWindow;
+			previewProgress.set( 0.0 );
+			zoomAnimation.getKeyFrames().setAll(
+					new KeyFrame( Duration.ZERO, new KeyValue( previewProgress, 0.0 ) ),
+					new KeyFrame( Duration.millis( zoomDurationMillis.get() ),
+					              new KeyValue( previewProgress, 1.0 ) )
+			);
+			zoomAnimation.play();
+			animatingZoomEvent = zoomEvent;
+		} else if ( zoomAnimated.get() ) {
 			zoomAnimation.getKeyFrames().setAll(
 					new KeyFrame( Duration.ZERO,
-					              new KeyValue( xAxisLowerBoundProperty, getXAxisLowerBound() ),
-					              new KeyValue( xAxisUpperBoundProperty, getXAxisUpperBound() ),
-					              new KeyValue( yAxisLowerBoundProperty, getYAxisLowerBound() ),
-					              new KeyValue( yAxisUpperBoundProperty, getYAxisUpperBound() )
+					              new KeyValue( getXAxisLowerBoundProperty(), getXAxisLowerBound() ),
+					              new KeyValue( getXAxisUpperBoundProperty(), getXAxisUpperBound() ),
+					              new KeyValue( getYAxisLowerBoundProperty(), getYAxisLowerBound() ),
+					              new KeyValue( getYAxisUpperBoundProperty(), getYAxisUpperBound() )
 					),
 			    new KeyFrame( Duration.millis( zoomDurationMillis.get() ),
-			                  new KeyValue( xAxisLowerBoundProperty, zoomWindow.getMinX() ),
-			                  new KeyValue( xAxisUpperBoundProperty, zoomWindow.getMaxX() ),
-			                  new KeyValue( yAxisLowerBoundProperty, zoomWindow.getMinY() ),
-			                  new KeyValue( yAxisUpperBoundProperty, zoomWindow.getMaxY() )
+			                  new KeyValue( getXAxisLowerBoundProperty(), zoomWindow.getMinX() ),
+			                  new KeyValue( getXAxisUpperBoundProperty(), zoomWindow.getMaxX() ),
+			                  new KeyValue( getYAxisLowerBoundProperty(), zoomWindow.getMinY() ),
+			                  new KeyValue( getYAxisUpperBoundProperty(), zoomWindow.getMaxY() )
 			    )
 			);
 			zoomAnimation.play();
+			animatingZoomEvent = zoomEvent;
 		} else {
-			zoomAnimation.stop();
-			setXAxisLowerBound( zoomWindow.getMinX() );
-			setXAxisUpperBound( zoomWindow.getMaxX() );
-			setYAxisLowerBound( zoomWindow.getMinY() );
-			setYAxisUpperBound( zoomWindow.getMaxY() );
+			setXAxisBounds( zoomWindow.getMinX(), zoomWindow.getMaxX() );
+			setYAxisBounds( zoomWindow.getMinY(), zoomWindow.getMaxY() );
+			commitZoomEvent( zoomEvent, "box", false );
+			viewportEvents.settled();
 		}
 
 		selecting.set( false );
 	}
 
+	/**
+	 * Stops any zoom animation, ending its flight recorder event at the bounds reached so far.
+	 */
+	private void stopZoomAnimation() {
+		zoomAnimation.stop();
+		if ( preview.isActive() )
+			endPreview( previewProgress.get() );
+		if ( animatingZoomEvent != null ) {
+			commitZoomEvent( animatingZoomEvent, "box", true );
+			animatingZoomEvent = null;
+		}
+	}
+
+	/**
+	 * Removes the preview transform and sets the real bounds reached at the given progress.
+	 */
+	private void endPreview( double progress ) {
+		preview.end();
+		Rectangle2D bounds = getPreviewBounds( progress );
+		setXAxisBounds( bounds.getMinX(), bounds.getMaxX() );
+		setYAxisBounds( bounds.getMinY(), bounds.getMaxY() );
+	}
+
+	private Rectangle2D getPreviewBounds( double progress ) {
+		double minX = previewFrom.getMinX() + ( previewTo.getMinX() - previewFrom.getMinX() ) * progress;
+		double maxX = previewFrom.getMaxX() + ( previewTo.getMaxX() - previewFrom.getMaxX() ) * progress;
+		double minY = previewFrom.getMinY() + ( previewTo.getMinY() - previewFrom.getMinY() ) * progress;
+		double maxY = previewFrom.getMaxY() + ( previewTo.getMaxY() - previewFrom.getMaxY() ) * progress;
+		return new Rectangle2D( minX, minY, maxX - minX, maxY - minY );
+	}
+
+	private void commitZoomEvent( ZoomEvent event, String gesture, boolean animated ) {
+		event.end();
+		if ( event.shouldCommit() ) {
+			event.gesture = gesture;
+			event.animated = animated;
+			event.setViewport( getXAxisLowerBound(), getXAxisUpperBound(),
+			                   getYAxisLowerBound(), getYAxisUpperBound() );
+			event.setChart( chartInfo.getChart() );
+			event.commit();
+		}
+	}
+
+	private void fireSelection( Rectangle2D window ) {
+		if ( selectionHandlers.isEmpty() )
+			return;
+
+		ChartSelectionEvent event = new ChartSelectionEvent(
+				this, window, selectAll( chartInfo.getChart(), window ) );
+		for ( Object handler : selectionHandlers.toArray() ) {
+			@SuppressWarnings( "unchecked" )
+			EventHandler<? super ChartSelectionEvent> h = (EventHandler<? super ChartSelectionEvent>) handler;
+			h.handle( event );
+		}
+	}
+
+	private <X, Y> List<IndexRangeSet> selectAll( XYChart<X, Y> chart, Rectangle2D window ) {
+		if ( sortTracker == null )
+			sortTracker = new SeriesSortTracker( chart );
+
+		List<IndexRangeSet> ret = new ArrayList<IndexRangeSet>( chart.getData().size() );
+		for ( XYChart.Series<X, Y> series : chart.getData() ) {
+			SortedXYData data = SortedXYDataUtil.forSeries( series, chart.getXAxis(), chart.getYAxis() );
+			if ( sortTracker.isSorted( series ) )
+				ret.add( SortedXYDataUtil.select( data, window ) );
+			else
+				ret.add( SortedXYDataUtil.selectUnsorted( data, window.getMinX(), window.getMaxX(),
+				                                          window.getMinY(), window.getMaxY() ) );
+		}
+		return ret;
+	}
+
 	private static double getBalance( double val, double min, double max ) {
 		if ( val <= min )
 			return 0.0;
@@ -463,10 +912,23 @@ public class ChartZoomManager {
 	}
 
 	private class MouseWheelZoomHandler implements EventHandler<ScrollEvent> {
+		/**
+		 * Wheel events closer together than this are considered one zoom for the history.
+		 */
+		private static final long HISTORY_GAP_NANOS = 500L * 1000L * 1000L;
+
 		private boolean ignoring = false;
+		private long lastZoomNanos;
 
 		@Override
 		public void handle( ScrollEvent event ) {
+			handle( event, null );
+		}
+
+		/**
+		 * Handles the event, creating a context if the given one is null. Returns true if zoomed.
+		 */
+		public boolean handle( ScrollEvent event, ChartInputContext context ) {
 			EventType<? extends Event> eventType = event.getEventType();
 			if ( eventType == ScrollEvent.SCROLL_STARTED ) {
 				//mouse wheel events never send SCROLL_STARTED
@@ -490,18 +952,27 @@ public class ChartZoomManager {
 				//Find out which axes to zoom based on the strategy
 				double eventX = event.getX();
 				double eventY = event.getY();
-				DefaultChartInputContext context = new DefaultChartInputContext( chartInfo, eventX, eventY );
+				if ( context == null )
+					context = new DefaultChartInputContext( chartInfo, eventX, eventY );
 				AxisConstraint zoomMode = mouseWheelAxisConstraintStrategy.getConstraint( context );
 
 				if ( zoomMode == AxisConstraint.None )
-					return;
+					return false;
 
 				//If we are are doing a zoom animation, stop it. Also of note is that we don't zoom the
 				//mouse wheel zooming. Because the mouse wheel can "fly" and generate a lot of events,
 				//animation doesn't work well. Plus, as the mouse wheel changes the view a small amount in
 				//a predictable way, it "looks like" an animation when you roll it.
 				//We might experiment with mouse wheel zoom animation in the future, though.
-				zoomAnimation.stop();
+				stopZoomAnimation();
+				ZoomEvent zoomEvent = new ZoomEvent();
+				zoomEvent.begin();
+
+				long now = System.nanoTime();
+				if ( zoomHistory != null && now - lastZoomNanos > HISTORY_GAP_NANOS )
+					zoomHistory.record();
+				lastZoomNanos = now;
+				viewportEvents.gestureStarted();
 
 				//At this point we are a mouse wheel event, based on everything I've read
 				Point2D dataCoords = chartInfo.getDataCoordinates( eventX, eventY );
@@ -520,110 +991,136 @@ public class ChartZoomManager {
 				//If so, the 0.2 needs to be modified
 				double zoomAmount = 0.2 * direction;
 
-				if ( zoomMode == AxisConstraint.Both || zoomMode == AxisConstraint.Horizontal ) {
-					double xZoomDelta = ( getXAxisUpperBound() - getXAxisLowerBound() ) * zoomAmount;
+				boolean zoomX = zoomMode == AxisConstraint.Both || zoomMode == AxisConstraint.Horizontal;
+				boolean zoomY = zoomMode == AxisConstraint.Both || zoomMode == AxisConstraint.Vertical;
+				double xLower = getXAxisLowerBound();
+				double xUpper = getXAxisUpperBound();
+				double yLower = getYAxisLowerBound();
+				double yUpper = getYAxisUpperBound();
+
+				if ( zoomX ) {
+					double xZoomDelta = ( xUpper - xLower ) * zoomAmount;
+					xLower -= xZoomDelta * xZoomBalance;
+					xUpper += xZoomDelta * ( 1 - xZoomBalance );
+				}
+
+				if ( zoomY ) {
+					double yZoomDelta = ( yUpper - yLower ) * zoomAmount;
+					yLower -= yZoomDelta * yZoomBalance;
+					yUpper += yZoomDelta * ( 1 - yZoomBalance );
+				}
+
+				if ( viewportLimits != null ) {
+					Rectangle2D limited = viewportLimits.limit( xLower, xUpper, yLower, yUpper );
+					xLower = limited.getMinX();
+					xUpper = limited.getMaxX();
+					yLower = limited.getMinY();
+					yUpper = limited.getMaxY();
+				}
+
+				if ( zoomX ) {
 					xAxis.setAutoRanging( false );
-					setXAxisLowerBound( getXAxisLowerBound() - xZoomDelta * xZoomBalance );
-					setXAxisUpperBound( getXAxisUpperBound() + xZoomDelta * ( 1 - xZoomBalance ) );
+					setXAxisBounds( xLower, xUpper );
 				}
 
-				if ( zoomMode == AxisConstraint.Both || zoomMode == AxisConstraint.Vertical ) {
-					double yZoomDelta = ( getYAxisUpperBound() - getYAxisLowerBound() ) * zoomAmount;
+				if ( zoomY ) {
 					yAxis.setAutoRanging( false );
-					setYAxisLowerBound( getYAxisLowerBound() - yZoomDelta * yZoomBalance );
-					setYAxisUpperBound( getYAxisUpperBound() + yZoomDelta * ( 1 - yZoomBalance ) );
+					setYAxisBounds( yLower, yUpper );
 				}
+
+				commitZoomEvent( zoomEvent, "wheel", false );
+				viewportEvents.changing();
+				viewportEvents.settleLater();
+				return true;
 			}
+			return false;
 		}
 	}
 
-	private double getXAxisLowerBound() {
-		return xAxisLowerBoundProperty.get();
-	}
+	private class ZoomInteraction implements ChartInteraction {
+		@Override
+		public boolean handle( InputEvent event, ChartInputContext context ) {
+			if ( !started )
+				return false;
 
-	private void setXAxisLowerBound(double val) {
-		xAxisLowerBoundProperty.set(val);
-	}
+			EventType<? extends Event> type = event.getEventType();
+			if ( type == ScrollEvent.SCROLL || type == ScrollEvent.SCROLL_STARTED ||
+			     type == ScrollEvent.SCROLL_FINISHED )
+				return mouseWheelZoomHandler.handle( (ScrollEvent) event, context );
 
-	private double getXAxisUpperBound() {
-		return xAxisUpperBoundProperty.get();
-	}
+			if ( type == MouseEvent.MOUSE_PRESSED ) {
+				MouseEvent mouseEvent = (MouseEvent) event;
+				if ( passesFilter( mouseEvent ) )
+					onMousePressed( mouseEvent, context );
+				//Only a drag starts a zoom, so don't claim the press
+				return false;
 
-	private void setXAxisUpperBound(double val) {
-		xAxisUpperBoundProperty.set(val);
-	}
+			} else if ( type == MouseEvent.DRAG_DETECTED ) {
+				if ( passesFilter( (MouseEvent) event ) )
+					onDragStart();
+				return selecting.get();
 
-	private double getYAxisLowerBound() {
-		return yAxisLowerBoundProperty.get();
-	}
+			} else if ( type == MouseEvent.MOUSE_DRAGGED ) {
+				onMouseDragged( (MouseEvent) event );
+				return selecting.get();
 
-	private void setYAxisLowerBound(double val) {
-		yAxisLowerBoundProperty.set(val);
-	}
+			} else if ( type == MouseEvent.MOUSE_RELEASED ) {
+				boolean wasSelecting = selecting.get();
+				onMouseReleased();
+				return wasSelecting;
+			}
 
-	private double getYAxisUpperBound() {
-		return yAxisUpperBoundProperty.get();
+			return false;
+		}
 	}
 
-	private void setYAxisUpperBound(double val) {
-		yAxisUpperBoundProperty.set(val);
+	private DoubleProperty getXAxisLowerBoundProperty() {
+		return xAxisGroup != null ? xAxisGroup.lowerBoundProperty() : xAxisLowerBoundProperty;
 	}
 
-	private static <T> DoubleProperty getLowerBoundProperty( Axis<T> axis ) {
-		return axis instanceof ValueAxis ?
-				((ValueAxis<?>) axis).lowerBoundProperty() :
-				toDoubleProperty(axis, ChartZoomManager.<T>getProperty(axis, "lowerBoundProperty") );
+	private DoubleProperty getXAxisUpperBoundProperty() {
+		return xAxisGroup != null ? xAxisGroup.upperBoundProperty() : xAxisUpperBoundProperty;
 	}
 
-	private static <T> DoubleProperty getUpperBoundProperty( Axis<T> axis ) {
-		return axis instanceof ValueAxis ?
-				((ValueAxis<?>) axis).upperBoundProperty() :
-				toDoubleProperty(axis, ChartZoomManager.<T>getProperty(axis, "upperBoundProperty") );
+	private DoubleProperty getYAxisLowerBoundProperty() {
+		return yAxisGroup != null ? yAxisGroup.lowerBoundProperty() : yAxisLowerBoundProperty;
 	}
 
-	private static <T> DoubleProperty toDoubleProperty( final Axis<T> axis, final Property<T> property ) {
-		final ChangeListener<Number>[] doubleChangeListenerAry = new ChangeListener[1];
-		final ChangeListener<T>[] realValListenerAry = new ChangeListener[1];
+	private DoubleProperty getYAxisUpperBoundProperty() {
+		return yAxisGroup != null ? yAxisGroup.upperBoundProperty() : yAxisUpperBoundProperty;
+	}
 
-		final DoubleProperty result = new SimpleDoubleProperty() {
-			/** Retain references so that they're not garbage collected. */
-			private final Object[] listeners = new Object[] {
-				doubleChangeListenerAry, realValListenerAry
-			};
-		};
+	private double getXAxisLowerBound() {
+		return getXAxisLowerBoundProperty().get();
+	}
 
-		doubleChangeListenerAry[0] = new ChangeListener<Number>() {
-			@Override
-			public void changed( ObservableValue<? extends Number> observable, Number oldValue, Number newValue ) {
-				property.removeListener( realValListenerAry[0] );
-				property.setValue( axis.toRealValue(
-						newValue == null ? null : newValue.doubleValue() )
-				);
-				property.addListener( realValListenerAry[0] );
-			}
-		};
-		result.addListener(doubleChangeListenerAry[0]);
+	private double getXAxisUpperBound() {
+		return getXAxisUpperBoundProperty().get();
+	}
 
-		realValListenerAry[0] = new ChangeListener<T>() {
-			@Override
-			public void changed( ObservableValue<? extends T> observable, T oldValue, T newValue ) {
-				result.removeListener( doubleChangeListenerAry[0] );
-				result.setValue( axis.toNumericValue( newValue ) );
-				result.addListener( doubleChangeListenerAry[0] );
-			}
-		};
-		property.addListener(realValListenerAry[0]);
+	private void setXAxisBounds( double lower, double upper ) {
+		if ( xAxisGroup != null ) {
+			xAxisGroup.setRange( lower, upper );
+		} else {
+			xAxisLowerBoundProperty.set( lower );
+			xAxisUpperBoundProperty.set( upper );
+		}
+	}
 
-		return result;
+	private double getYAxisLowerBound() {
+		return getYAxisLowerBoundProperty().get();
 	}
 
-	@SuppressWarnings( "unchecked" )
-	private static <T> Property<T> getProperty( Object object, String method ) {
-		try {
-			Object result = object.getClass().getMethod(method).invoke(object);
-			return result instanceof Property ? (Property<T>) result : null;
-		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ignored ) {}
+	private double getYAxisUpperBound() {
+		return getYAxisUpperBoundProperty().get();
+	}
 
-		return null;
+	private void setYAxisBounds( double lower, double upper ) {
+		if ( yAxisGroup != null ) {
+			yAxisGroup.setRange( lower, upper );
+		} else {
+			yAxisLowerBoundProperty.set( lower );
+			yAxisUpperBoundProperty.set( upper );
+		}
 	}
 }
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataExtentIndex keeps the minimum and maximum X and Y values of a set of series up to date as
+ * points are added and removed, so that the extent of the data can be read at any time without
+ * scanning every point. It is used by {@link ViewportLimits} to keep the zoom and pan managers
+ * from moving far away from the data.
+ * <p>
+ * Added points only widen the extents of their series. The X extent of a series sorted by X is taken
+ * from its first and last points, so removing the oldest points of a rolling window is cheap. A
+ * series is scanned again, on the next read, only when a point on the edge of its Y extent is
+ * removed, or one on the edge of its X extent when it is not sorted. Changes to the X or Y value of a
+ * {@link XYChart.Data} already in a series are not seen; call {@link #invalidate()} after making
+ * them.
+ * <p>
+ * Extents that are not held in a series, such as the full range of data that a
+ * {@link ChartDataProvider} loads on demand, can be added with {@link #include(double, double)}.
+ * <p>
+ * DataExtentIndex must only be used from the thread that changes the series, normally the FX
+ * thread.
+ *
+ * @author Jason Winnebeck
+ */
+public class DataExtentIndex {
+	private final List<SeriesExtent<?, ?>> seriesExtents = new ArrayList<SeriesExtent<?, ?>>();
+
+	/**
+	 * Extents added with {@link #include(double, double)}.
+	 */
+	private final Extent included = new Extent();
+
+	/**
+	 * Adds a series to the index and starts following its changes.
+	 */
+	public <X extends Number, Y extends Number> void addSeries( XYChart.Series<X, Y> series ) {
+		if ( find( series ) != null )
+			return;
+
+		SeriesExtent<X, Y> extent = new SeriesExtent<X, Y>( series );
+		series.getData().addListener( extent );
+		seriesExtents.add( extent );
+	}
+
+	/**
+	 * Removes a series from the index and stops following its changes.
+	 */
+	public void removeSeries( XYChart.Series<?, ?> series ) {
+		SeriesExtent<?, ?> extent = find( series );
+		if ( extent != null ) {
+			extent.dispose();
+			seriesExtents.remove( extent );
+		}
+	}
+
+	/**
+	 * Widens the extents to include the given point, which is kept until {@link #clear()}.
+	 */
+	public void include( double x, double y ) {
+		included.add( x, y );
+	}
+
+	/**
+	 * Removes all series and included points.
+	 */
+	public void clear() {
+		for ( SeriesExtent<?, ?> extent : seriesExtents ) {
+			extent.dispose();
+		}
+		seriesExtents.clear();
+		included.reset();
+	}
+
+	/**
+	 * Marks every series to be scanned again on the next read, for example after changing the values
+	 * of points already in a series.
+	 */
+	public void invalidate() {
+		for ( SeriesExtent<?, ?> extent : seriesExtents ) {
+			extent.invalidate();
+		}
+	}
+
+	/**
+	 * Returns true if there are no points at all, in which case the extents are undefined.
+	 */
+	public boolean isEmpty() {
+		return !getExtent().isValid();
+	}
+
+	public double getMinX() {
+		return getExtent().minX;
+	}
+
+	public double getMaxX() {
+		return getExtent().maxX;
+	}
+
+	public double getMinY() {
+		return getExtent().minY;
+	}
+
+	public double getMaxY() {
+		return getExtent().maxY;
+	}
+
+	/**
+	 * Returns the extents as a rectangle in data coordinates, or null if {@link #isEmpty()}.
+	 */
+	public Rectangle2D getExtents() {
+		Extent extent = getExtent();
+		if ( !extent.isValid() )
+			return null;
+		return new Rectangle2D( extent.minX, extent.minY,
+		                        extent.maxX - extent.minX, extent.maxY - extent.minY );
+	}
+
+	private Extent getExtent() {
+		Extent ret = new Extent();
+		ret.add( included );
+		for ( SeriesExtent<?, ?> extent : seriesExtents ) {
+			extent.update();
+			ret.add( extent.extent );
+		}
+		return ret;
+	}
+
+	private SeriesExtent<?, ?> find( XYChart.Series<?, ?> series ) {
+		for ( SeriesExtent<?, ?> extent : seriesExtents ) {
+			if ( extent.series == series )
+				return extent;
+		}
+		return null;
+	}
+
+	private static class Extent {
+		private double minX;
+		private double maxX;
+		private double minY;
+		private double maxY;
+
+		private Extent() {
+			reset();
+		}
+
+		private void reset() {
+			minX = Double.POSITIVE_INFINITY;
+			maxX = Double.NEGATIVE_INFINITY;
+			minY = Double.POSITIVE_INFINITY;
+			maxY = Double.NEGATIVE_INFINITY;
+		}
+
+		private boolean isValid() {
+			return minX <= maxX;
+		}
+
+		private void add( double x, double y ) {
+			minX = Math.min( minX, x );
+			maxX = Math.max( maxX, x );
+			minY = Math.min( minY, y );
+			maxY = Math.max( maxY, y );
+		}
+
+		private void add( Extent other ) {
+			if ( other.isValid() ) {
+				add( other.minX, other.minY );
+				add( other.maxX, other.maxY );
+			}
+		}
+
+		/**
+		 * Returns true if the X value is on the edge of this extent, so removing it may shrink it.
+		 */
+		@SuppressWarnings( "FloatingPointEquality" )
+		private boolean isOnXEdge( double x ) {
+			return x == minX || x == maxX;
+		}
+
+		/**
+		 * Returns true if the Y value is on the edge of this extent, so removing it may shrink it.
+		 */
+		@SuppressWarnings( "FloatingPointEquality" )
+		private boolean isOnYEdge( double y ) {
+			return y == minY || y == maxY;
+		}
+	}
+
+	private static class SeriesExtent<X extends Number, Y extends Number>
+			implements ListChangeListener<XYChart.Data<X, Y>> {
+		private final XYChart.Series<X, Y> series;
+		private final SeriesSortTracker.SeriesOrder<X, Y> order;
+		private final Extent extent = new Extent();
+
+		/**
+		 * True if a point on the edge of the X extent was removed, so it may be too wide.
+		 */
+		private boolean xDirty = true;
+		/**
+		 * True if a point on the edge of the Y extent was removed, so it may be too wide.
+		 */
+		private boolean yDirty = true;
+
+		private SeriesExtent( XYChart.Series<X, Y> series ) {
+			this.series = series;
+			order = new SeriesSortTracker.SeriesOrder<X, Y>( series, null );
+		}
+
+		@Override
+		public void onChanged( Change<? extends XYChart.Data<X, Y>> c ) {
+			while ( c.next() && !yDirty ) {
+				for ( XYChart.Data<X, Y> data : c.getRemoved() ) {
+					if ( extent.isOnXEdge( data.getXValue().doubleValue() ) )
+						xDirty = true;
+					if ( extent.isOnYEdge( data.getYValue().doubleValue() ) ) {
+						yDirty = true;
+						return;
+					}
+				}
+				for ( XYChart.Data<X, Y> data : c.getAddedSubList() ) {
+					extent.add( data.getXValue().doubleValue(), data.getYValue().doubleValue() );
+				}
+			}
+		}
+
+		/**
+		 * Brings the extent up to date for a read.
+		 */
+		private void update() {
+			if ( !xDirty && !yDirty )
+				return;
+
+			List<XYChart.Data<X, Y>> data = series.getData();
+			if ( !yDirty && !data.isEmpty() && order.isSorted() ) {
+				extent.minX = data.get( 0 ).getXValue().doubleValue();
+				extent.maxX = data.get( data.size() - 1 ).getXValue().doubleValue();
+				xDirty = false;
+			} else {
+				rescan();
+			}
+		}
+
+		private void rescan() {
+			extent.reset();
+			for ( XYChart.Data<X, Y> data : series.getData() ) {
+				extent.add( data.getXValue().doubleValue(), data.getYValue().doubleValue() );
+			}
+			xDirty = false;
+			yDirty = false;
+		}
+
+		private void invalidate() {
+			xDirty = true;
+			yDirty = true;
+			order.invalidate();
+		}
+
+		private void dispose() {
+			series.getData().removeListener( this );
+			order.dispose();
+		}
+	}
+}
@@ -18,12 +18,18 @@ package org.gillius.jfxutils.chart;
 
 /**
  * A default implementation of {@link ChartInputContext} based on the {@link XYChartInfo} and an X,Y coordinate.
+ * Each hit test is computed on first use and then cached, so one context can be shared by everything
+ * handling the same event.
  */
 public class DefaultChartInputContext implements ChartInputContext {
 	private final XYChartInfo chartInfo;
 	private final double x;
 	private final double y;
 
+	private Boolean inXAxis;
+	private Boolean inYAxis;
+	private Boolean inPlotArea;
+
 	public DefaultChartInputContext( XYChartInfo chartInfo, double x, double y ) {
 		this.chartInfo = chartInfo;
 		this.x = x;
@@ -32,16 +38,22 @@ public class DefaultChartInputContext implements ChartInputContext {
 
 	@Override
 	public boolean isInXAxis() {
-		return chartInfo.getXAxisArea().contains( x, y );
+		if ( inXAxis == null )
+			inXAxis = chartInfo.getXAxisArea().contains( x, y );
+		return inXAxis;
 	}
 
 	@Override
 	public boolean isInYAxis() {
-		return chartInfo.getYAxisArea().contains( x, y );
+		if ( inYAxis == null )
+			inYAxis = chartInfo.getYAxisArea().contains( x, y );
+		return inYAxis;
 	}
 
 	@Override
 	public boolean isInPlotArea() {
-		return chartInfo.isInPlotArea( x, y );
+		if ( inPlotArea == null )
+			inPlotArea = chartInfo.isInPlotArea( x, y );
+		return inPlotArea;
 	}
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts points into a grid of bins in parallel, for {@link DensityHeatmap}. The index range of the
+ * data is split into chunks that are binned by fork/join tasks into their own count arrays, which
+ * are then added together. Chunks are sized so that there are a few per worker thread, to bound the
+ * number of count arrays allocated.
+ *
+ * @author Jason Winnebeck
+ */
+final class DensityBinner {
+	/**
+	 * Chunks are never smaller than this, as a count array must be allocated for each.
+	 */
+	private static final int MIN_CHUNK = 1 << 16;
+
+	private DensityBinner() {
+	}
+
+	/**
+	 * Returns the number of points in each of columns x rows bins covering
+	 * [xMin, xMax) x [yMin, yMax), in row major order with row 0 at yMax (the top). Only the points
+	 * with indexes in [from, to) are considered, and points outside of the bins are ignored.
+	 * Must be called from a thread of the pool, or it will be run in the pool.
+	 */
+	static int[] bin( ForkJoinPool pool, double[] xs, double[] ys, int from, int to,
+	                  double xMin, double xMax, double yMin, double yMax, int columns, int rows ) {
+		int chunk = Math.max( MIN_CHUNK, ( to - from ) / ( pool.getParallelism() * 4 ) + 1 );
+		BinTask task = new BinTask( xs, ys, from, to, chunk, xMin, yMax,
+		                            columns / ( xMax - xMin ), rows / ( yMax - yMin ), columns, rows );
+		if ( ForkJoinTask.getPool() == pool )
+			return task.invoke();
+		else
+			return pool.invoke( task );
+	}
+
+	private static class BinTask extends RecursiveTask<int[]> {
+		private static final long serialVersionUID = 1L;
+
+		private final double[] xs;
+		private final double[] ys;
+		private final int from;
+		private final int to;
+		private final int chunk;
+		private final double xMin;
+		private final double yMax;
+		private final double columnsPerX;
+		private final double rowsPerY;
+		private final int columns;
+		private final int rows;
+
+		private BinTask( double[] xs, double[] ys, int from, int to, int chunk, double xMin, double yMax,
+		                 double columnsPerX, double rowsPerY, int columns, int rows ) {
+			this.xs = xs;
+			this.ys = ys;
+			this.from = from;
+			this.to = to;
+			this.chunk = chunk;
+			this.xMin = xMin;
+			this.yMax = yMax;
+			this.columnsPerX = columnsPerX;
+			this.rowsPerY = rowsPerY;
+			this.columns = columns;
+			this.rows = rows;
+		}
+
+		@Override
+		protected int[] compute() {
+			if ( to - from <= chunk )
+				return binChunk();
+
+			int mid = ( from + to ) >>> 1;
+			BinTask left = new BinTask( xs, ys, from, mid, chunk, xMin, yMax, columnsPerX, rowsPerY, columns, rows );
+			BinTask right = new BinTask( xs, ys, mid, to, chunk, xMin, yMax, columnsPerX, rowsPerY, columns, rows );
+			right.fork();
+			int[] counts = left.compute();
+			int[] rightCounts = right.join();
+			for ( int i = 0; i < counts.length; ++i ) {
+				counts[i] += rightCounts[i];
+			}
+			return counts;
+		}
+
+		private int[] binChunk() {
+			int[] counts = new int[columns * rows];
+			for ( int i = from; i < to; ++i ) {
+				//Compare as doubles first so that NaN and huge values are skipped
+				double column = ( xs[i] - xMin ) * columnsPerX;
+				double row = ( yMax - ys[i] ) * rowsPerY;
+				if ( column >= 0.0 && column < columns && row >= 0.0 && row < rows )
+					++counts[(int) row * columns + (int) column];
+			}
+			return counts;
+		}
+	}
+}
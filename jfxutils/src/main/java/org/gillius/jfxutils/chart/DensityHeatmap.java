@@ -0,0 +1,315 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.chart.XYChart;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * DensityHeatmap shows massive scatter data, far too many points to create nodes for, as a 2D
+ * histogram: the plot area is divided into bins of {@link #setBinSize(int) binSize} pixels, and each
+ * bin is colored by the number of points in it, on a logarithmic scale. It is an {@link ImageView}
+ * to place over the chart in a parent such as the StackPane from
+ * {@link JFXChartUtil#setupZooming(XYChart)}; it positions itself over the plot area.
+ * <p>
+ * The data are primitive arrays given to {@link #setData(double[], double[], int, boolean)}.
+ * Binning is done with fork/join tasks over chunks of the arrays, off the JavaFX thread, whenever the
+ * axis bounds or the plot area size change, for example when zooming with the
+ * {@link ChartZoomManager}. Only the points in the visible range are binned: if the data is sorted
+ * by X, the visible index range is found by binary search, otherwise all points are scanned but
+ * those outside the bounds are skipped. Changes during a binning are coalesced into one more pass,
+ * and the image is replaced only when the binning finishes.
+ * <p>
+ * Both axes must be supported by {@link AxisBoundsAdapters}. All methods must be called on the
+ * JavaFX thread.
+ *
+ * @author Jason Winnebeck
+ */
+public class DensityHeatmap extends ImageView {
+	private static final int COLOR_MAP_SIZE = 256;
+
+	private final XYChart<?, ?> chart;
+	private final AxisBoundsAdapter xBounds;
+	private final AxisBoundsAdapter yBounds;
+	private final ForkJoinPool pool;
+
+	private double[] xs = new double[0];
+	private double[] ys = new double[0];
+	private int size = 0;
+	private boolean sortedByX = false;
+
+	private int binSize = 2;
+	private int[] colorMap = createColorMap( Color.TRANSPARENT, Color.web( "#30123b" ), Color.web( "#4686fb" ),
+	                                         Color.web( "#1ae4b6" ), Color.web( "#a2fc3c" ),
+	                                         Color.web( "#faba39" ), Color.web( "#7a0403" ) );
+
+	/**
+	 * True if the bins must be recomputed after the next layout.
+	 */
+	private boolean pending = false;
+
+	/**
+	 * True while a binning runs on the pool.
+	 */
+	private boolean binning = false;
+
+	private Scene scene;
+
+	private final InvalidationListener changeListener = new InvalidationListener() {
+		@Override
+		public void invalidated( Observable observable ) {
+			invalidate();
+		}
+	};
+
+	private final Runnable postLayoutListener = new Runnable() {
+		@Override
+		public void run() {
+			if ( pending && !binning )
+				startBinning();
+		}
+	};
+
+	/**
+	 * Creates a heatmap for the chart, binning on the common fork/join pool.
+	 */
+	public DensityHeatmap( XYChart<?, ?> chart ) {
+		this( chart, ForkJoinPool.commonPool() );
+	}
+
+	/**
+	 * Creates a heatmap for the chart, binning on the given pool.
+	 */
+	public DensityHeatmap( XYChart<?, ?> chart, ForkJoinPool pool ) {
+		this.chart = chart;
+		this.pool = pool;
+		xBounds = AxisBoundsAdapters.forAxis( chart.getXAxis() );
+		yBounds = AxisBoundsAdapters.forAxis( chart.getYAxis() );
+		if ( xBounds == null || yBounds == null )
+			throw new IllegalArgumentException( "Axis type not supported" );
+
+		setManaged( false );
+		setMouseTransparent( true );
+		setSmooth( false );
+
+		xBounds.lowerBoundProperty().addListener( changeListener );
+		xBounds.upperBoundProperty().addListener( changeListener );
+		yBounds.lowerBoundProperty().addListener( changeListener );
+		yBounds.upperBoundProperty().addListener( changeListener );
+		chart.layoutBoundsProperty().addListener( changeListener );
+		chart.getXAxis().layoutBoundsProperty().addListener( changeListener );
+		chart.getYAxis().layoutBoundsProperty().addListener( changeListener );
+
+		sceneProperty().addListener( new ChangeListener<Scene>() {
+			@Override
+			public void changed( ObservableValue<? extends Scene> observable, Scene oldValue, Scene newValue ) {
+				setScene( newValue );
+			}
+		} );
+		setScene( getScene() );
+	}
+
+	/**
+	 * Sets the data to show. The arrays are used directly and must not be modified until another
+	 * call to this method; to add points, fill new (or spare) arrays and set those.
+	 *
+	 * @param xs        X values
+	 * @param ys        Y values
+	 * @param size      number of points, which are in indexes [0, size) of the arrays
+	 * @param sortedByX true if the X values are in non-decreasing order, which allows binning only
+	 *                  the visible index range
+	 */
+	public void setData( double[] xs, double[] ys, int size, boolean sortedByX ) {
+		if ( size < 0 || size > xs.length || size > ys.length )
+			throw new IllegalArgumentException( "size exceeds the arrays' length" );
+		this.xs = xs;
+		this.ys = ys;
+		this.size = size;
+		this.sortedByX = sortedByX;
+		invalidate();
+	}
+
+	public int getBinSize() {
+		return binSize;
+	}
+
+	/**
+	 * Sets the width and height of each bin in pixels. The default is 2.
+	 */
+	public void setBinSize( int binSize ) {
+		if ( binSize < 1 )
+			throw new IllegalArgumentException( "binSize must be positive" );
+		this.binSize = binSize;
+		invalidate();
+	}
+
+	/**
+	 * Sets the color map from the given colors, which are evenly spaced from an empty bin (the first
+	 * color) to the fullest bin (the last color), on a logarithmic scale.
+	 */
+	public void setColors( Color... colors ) {
+		if ( colors.length < 2 )
+			throw new IllegalArgumentException( "At least 2 colors are needed" );
+		colorMap = createColorMap( colors );
+		invalidate();
+	}
+
+	/**
+	 * Requests a new binning after the next layout pass, for example after changing values in the
+	 * data arrays.
+	 */
+	public void invalidate() {
+		pending = true;
+		Platform.requestNextPulse();
+	}
+
+	private void setScene( Scene newScene ) {
+		if ( scene != null )
+			scene.removePostLayoutPulseListener( postLayoutListener );
+		scene = newScene;
+		if ( scene != null ) {
+			scene.addPostLayoutPulseListener( postLayoutListener );
+			invalidate();
+		}
+	}
+
+	private void startBinning() {
+		pending = false;
+		Node parent = getParent();
+		if ( parent == null )
+			return;
+
+		final Rectangle2D plotArea = new XYChartInfo( chart, parent ).getPlotArea();
+		final int columns = (int) Math.ceil( plotArea.getWidth() / binSize );
+		final int rows = (int) Math.ceil( plotArea.getHeight() / binSize );
+		final double xMin = xBounds.lowerBoundProperty().get();
+		final double xMax = xBounds.upperBoundProperty().get();
+		final double yMin = yBounds.lowerBoundProperty().get();
+		final double yMax = yBounds.upperBoundProperty().get();
+		if ( columns <= 0 || rows <= 0 || !( xMax > xMin ) || !( yMax > yMin ) ) {
+			setImage( null );
+			return;
+		}
+
+		final double[] xs = this.xs;
+		final double[] ys = this.ys;
+		int from = 0;
+		int to = size;
+		if ( sortedByX ) {
+			from = lowerBound( xs, 0, size, xMin );
+			to = lowerBound( xs, from, size, xMax );
+		}
+		final int binFrom = from;
+		final int binTo = to;
+		final int[] colorMap = this.colorMap;
+
+		binning = true;
+		pool.execute( new Runnable() {
+			@Override
+			public void run() {
+				int[] result = null;
+				try {
+					int[] counts = DensityBinner.bin( pool, xs, ys, binFrom, binTo, xMin, xMax, yMin, yMax, columns, rows );
+					result = toArgb( counts, colorMap );
+				} finally {
+					//Always clear the flag, or a failed pass would stop all later binning
+					final int[] argb = result;
+					Platform.runLater( new Runnable() {
+						@Override
+						public void run() {
+							binning = false;
+							if ( argb != null )
+								show( argb, columns, rows, plotArea );
+							if ( pending )
+								Platform.requestNextPulse();
+						}
+					} );
+				}
+			}
+		} );
+	}
+
+	private void show( int[] argb, int columns, int rows, Rectangle2D plotArea ) {
+		WritableImage image = (WritableImage) getImage();
+		if ( image == null || image.getWidth() != columns || image.getHeight() != rows )
+			image = new WritableImage( columns, rows );
+		image.getPixelWriter().setPixels( 0, 0, columns, rows, PixelFormat.getIntArgbInstance(), argb, 0, columns );
+		setImage( image );
+		setLayoutX( plotArea.getMinX() );
+		setLayoutY( plotArea.getMinY() );
+		//The bins evenly divide the plot area, each about binSize pixels
+		setFitWidth( plotArea.getWidth() );
+		setFitHeight( plotArea.getHeight() );
+	}
+
+	private static int[] toArgb( int[] counts, int[] colorMap ) {
+		int max = 0;
+		for ( int count : counts ) {
+			if ( count > max )
+				max = count;
+		}
+
+		int[] argb = new int[counts.length];
+		double scale = max == 0 ? 0.0 : ( colorMap.length - 1 ) / Math.log1p( max );
+		for ( int i = 0; i < counts.length; ++i ) {
+			int count = counts[i];
+			argb[i] = count == 0 ? colorMap[0] :
+			          colorMap[Math.max( 1, (int) ( Math.log1p( count ) * scale ) )];
+		}
+		return argb;
+	}
+
+	private static int[] createColorMap( Color... colors ) {
+		int[] ret = new int[COLOR_MAP_SIZE];
+		for ( int i = 0; i < COLOR_MAP_SIZE; ++i ) {
+			double t = i / (double) ( COLOR_MAP_SIZE - 1 ) * ( colors.length - 1 );
+			int stop = Math.min( colors.length - 2, (int) t );
+			Color color = colors[stop].interpolate( colors[stop + 1], t - stop );
+			ret[i] = (int) Math.round( color.getOpacity() * 255 ) << 24 |
+			         (int) Math.round( color.getRed() * 255 ) << 16 |
+			         (int) Math.round( color.getGreen() * 255 ) << 8 |
+			         (int) Math.round( color.getBlue() * 255 );
+		}
+		return ret;
+	}
+
+	private static int lowerBound( double[] xs, int from, int to, double x ) {
+		int low = from;
+		int high = to;
+		while ( low < high ) {
+			int mid = ( low + high ) >>> 1;
+			if ( xs[mid] < x )
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+}
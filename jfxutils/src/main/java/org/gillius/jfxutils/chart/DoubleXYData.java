@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import java.util.Arrays;
+
+/**
+ * DoubleXYData is a growable {@link SortedXYData} storing points in primitive double arrays, for
+ * data sets too large to hold as {@link javafx.scene.chart.XYChart.Data} objects. Points can only be
+ * appended, in non-decreasing X order.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Jason Winnebeck
+ */
+public class DoubleXYData implements SortedXYData {
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private double[] xs;
+	private double[] ys;
+	private int size = 0;
+
+	public DoubleXYData() {
+		this( DEFAULT_CAPACITY );
+	}
+
+	public DoubleXYData( int initialCapacity ) {
+		if ( initialCapacity < 0 )
+			throw new IllegalArgumentException( "initialCapacity must not be negative" );
+
+		xs = new double[initialCapacity];
+		ys = new double[initialCapacity];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public double getX( int index ) {
+		checkIndex( index );
+		return xs[index];
+	}
+
+	@Override
+	public double getY( int index ) {
+		checkIndex( index );
+		return ys[index];
+	}
+
+	/**
+	 * Appends a point.
+	 *
+	 * @throws IllegalArgumentException if x is less than the X of the last point, or is NaN
+	 */
+	public void add( double x, double y ) {
+		if ( Double.isNaN( x ) || ( size > 0 && x < xs[size - 1] ) )
+			throw new IllegalArgumentException( "X values must be added in non-decreasing order" );
+
+		if ( size == xs.length ) {
+			int newCapacity = Math.max( DEFAULT_CAPACITY, xs.length * 2 );
+			xs = Arrays.copyOf( xs, newCapacity );
+			ys = Arrays.copyOf( ys, newCapacity );
+		}
+
+		xs[size] = x;
+		ys[size] = y;
+		++size;
+	}
+
+	/**
+	 * Removes all points, keeping the allocated capacity.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	private void checkIndex( int index ) {
+		if ( index < 0 || index >= size )
+			throw new IndexOutOfBoundsException( "index " + index + ", size " + size );
+	}
+}
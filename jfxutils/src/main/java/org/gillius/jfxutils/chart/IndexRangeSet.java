@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * IndexRangeSet is a compact set of non-negative int indexes, stored as sorted, non-adjacent ranges
+ * of consecutive indexes. Memory use is proportional to the number of ranges, not to the number or
+ * magnitude of the indexes, which suits the results of selecting points from large series.
+ * <p>
+ * Indexes must be added in increasing order.
+ *
+ * @author Jason Winnebeck
+ */
+public class IndexRangeSet {
+	/**
+	 * Pairs of start (inclusive) and end (exclusive) indexes.
+	 */
+	private int[] ranges = new int[8];
+	private int rangeCount = 0;
+	private int cardinality = 0;
+
+	/**
+	 * Adds an index, which must be greater than any index already in the set.
+	 */
+	public void add( int index ) {
+		addRange( index, index + 1 );
+	}
+
+	/**
+	 * Adds the indexes from start (inclusive) to end (exclusive). start must be greater than any
+	 * index already in the set.
+	 */
+	public void addRange( int start, int end ) {
+		if ( start < 0 || end < start )
+			throw new IllegalArgumentException( "invalid range " + start + " to " + end );
+		if ( start == end )
+			return;
+
+		int last = rangeCount * 2 - 1;
+		if ( rangeCount > 0 && start < ranges[last] )
+			throw new IllegalArgumentException( "indexes must be added in increasing order" );
+
+		if ( rangeCount > 0 && start == ranges[last] ) {
+			ranges[last] = end;
+		} else {
+			if ( rangeCount * 2 == ranges.length )
+				ranges = Arrays.copyOf( ranges, ranges.length * 2 );
+			ranges[rangeCount * 2] = start;
+			ranges[rangeCount * 2 + 1] = end;
+			++rangeCount;
+		}
+		cardinality += end - start;
+	}
+
+	/**
+	 * Returns the number of indexes in the set.
+	 */
+	public int cardinality() {
+		return cardinality;
+	}
+
+	public boolean isEmpty() {
+		return cardinality == 0;
+	}
+
+	/**
+	 * Returns the number of ranges of consecutive indexes.
+	 */
+	public int getRangeCount() {
+		return rangeCount;
+	}
+
+	/**
+	 * Returns the first index of the given range.
+	 */
+	public int getRangeStart( int range ) {
+		checkRange( range );
+		return ranges[range * 2];
+	}
+
+	/**
+	 * Returns one past the last index of the given range.
+	 */
+	public int getRangeEnd( int range ) {
+		checkRange( range );
+		return ranges[range * 2 + 1];
+	}
+
+	/**
+	 * Returns true if the index is in the set, in O(log(ranges)) time.
+	 */
+	public boolean contains( int index ) {
+		int low = 0;
+		int high = rangeCount - 1;
+		while ( low <= high ) {
+			int mid = ( low + high ) >>> 1;
+			if ( index < ranges[mid * 2] )
+				high = mid - 1;
+			else if ( index >= ranges[mid * 2 + 1] )
+				low = mid + 1;
+			else
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the set as a new {@link BitSet}.
+	 */
+	public BitSet toBitSet() {
+		BitSet ret = new BitSet( rangeCount == 0 ? 0 : ranges[rangeCount * 2 - 1] );
+		for ( int i = 0; i < rangeCount; ++i ) {
+			ret.set( ranges[i * 2], ranges[i * 2 + 1] );
+		}
+		return ret;
+	}
+
+	private void checkRange( int range ) {
+		if ( range < 0 || range >= rangeCount )
+			throw new IndexOutOfBoundsException( "range " + range + ", count " + rangeCount );
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder( "IndexRangeSet{" );
+		for ( int i = 0; i < rangeCount; ++i ) {
+			if ( i > 0 )
+				sb.append( ", " );
+			sb.append( '[' ).append( ranges[i * 2] ).append( ", " ).append( ranges[i * 2 + 1] ).append( ')' );
+		}
+		return sb.append( '}' ).toString();
+	}
+}
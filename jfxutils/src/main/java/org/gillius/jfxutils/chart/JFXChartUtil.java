@@ -20,6 +20,7 @@ import javafx.event.EventHandler;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.chart.XYChart;
+import javafx.scene.input.InputEvent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
@@ -134,4 +135,30 @@ public class JFXChartUtil {
 			}
 		};
 	}
+
+	/**
+	 * Returns a {@link ChartInteraction} for a {@link ChartInteractionController} that auto ranges the
+	 * axes when the primary mouse button is double-clicked, like
+	 * {@link #getDoublePrimaryClickAutoRangeHandler(XYChartInfo)}, but using the controller's shared
+	 * hit test results.
+	 */
+	public static ChartInteraction getDoublePrimaryClickAutoRangeInteraction( final XYChart<?, ?> chart ) {
+		return new ChartInteraction() {
+			@Override
+			public boolean handle( InputEvent event, ChartInputContext context ) {
+				if ( event.getEventType() != MouseEvent.MOUSE_CLICKED )
+					return false;
+
+				MouseEvent mouseEvent = (MouseEvent) event;
+				if ( mouseEvent.getClickCount() == 2 && mouseEvent.getButton() == MouseButton.PRIMARY ) {
+					if ( !context.isInXAxis() )
+						chart.getYAxis().setAutoRanging( true );
+					if ( !context.isInYAxis() )
+						chart.getXAxis().setAutoRanging( true );
+					return true;
+				}
+				return false;
+			}
+		};
+	}
 }
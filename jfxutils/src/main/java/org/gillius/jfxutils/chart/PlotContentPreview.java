@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.scene.Node;
+import javafx.scene.chart.XYChart;
+import javafx.scene.transform.Affine;
+
+/**
+ * PlotContentPreview shows an approximation of an {@link XYChart} at a new viewport by transforming
+ * the plot content already rendered for the viewport it had when the preview began, without
+ * changing the axis bounds. As the chart is not laid out again, the preview costs the same however
+ * many points the chart has. The plot area clip still applies, so content moved past the edges of
+ * the plot is hidden. The caller sets the real bounds once the gesture is over, after
+ * {@link #end()}.
+ * <p>
+ * Content is only present where the chart rendered it, so a preview that reveals area outside the
+ * original viewport may show it empty, for example when data is loaded per viewport by a
+ * {@link ChartDataLoader}.
+ * <p>
+ * This relies on the XYChart placing series nodes in a group with the "plot-content" style class at
+ * their axis display positions, which is how the JavaFX charts are built.
+ *
+ * @author Jason Winnebeck
+ */
+class PlotContentPreview {
+	private final XYChart<?, ?> chart;
+	private final Affine transform = new Affine();
+
+	private Node plotContent;
+
+	private double xLower;
+	private double xUpper;
+	private double yLower;
+	private double yUpper;
+
+	private boolean active = false;
+
+	PlotContentPreview( XYChart<?, ?> chart ) {
+		this.chart = chart;
+	}
+
+	/**
+	 * Returns true between a successful {@link #begin} and {@link #end()}.
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Starts a preview from the viewport the chart was last laid out with.
+	 *
+	 * @return false if the plot content could not be found, in which case the caller should change
+	 *         the bounds directly instead
+	 */
+	public boolean begin( double xLower, double xUpper, double yLower, double yUpper ) {
+		if ( active )
+			end();
+
+		if ( plotContent == null )
+			plotContent = chart.lookup( ".plot-content" );
+		if ( plotContent == null || xUpper <= xLower || yUpper <= yLower )
+			return false;
+
+		this.xLower = xLower;
+		this.xUpper = xUpper;
+		this.yLower = yLower;
+		this.yUpper = yUpper;
+		transform.setToIdentity();
+		plotContent.getTransforms().add( transform );
+		active = true;
+		return true;
+	}
+
+	/**
+	 * Transforms the rendered content so that it appears as it would with the given bounds.
+	 */
+	public void show( double xLower, double xUpper, double yLower, double yUpper ) {
+		if ( !active )
+			return;
+
+		double width = chart.getXAxis().getWidth();
+		double height = chart.getYAxis().getHeight();
+
+		//A value v at pixel p = (v - lower) * width / (upper - lower) for the old bounds is wanted at
+		//the same expression for the new bounds, which is linear in p. The Y axis grows upwards.
+		double xScale = ( this.xUpper - this.xLower ) / ( xUpper - xLower );
+		double yScale = ( this.yUpper - this.yLower ) / ( yUpper - yLower );
+		transform.setToTransform( xScale, 0.0, ( this.xLower - xLower ) * width / ( xUpper - xLower ),
+		                          0.0, yScale, ( yUpper - this.yUpper ) * height / ( yUpper - yLower ) );
+	}
+
+	/**
+	 * Returns how far, in pixels, the current preview has moved the content horizontally.
+	 */
+	public double getTranslateX() {
+		return transform.getTx();
+	}
+
+	/**
+	 * Returns how far, in pixels, the current preview has moved the content vertically.
+	 */
+	public double getTranslateY() {
+		return transform.getTy();
+	}
+
+	/**
+	 * Removes the preview transform. The caller should set the real bounds in the same pulse, so
+	 * that the content is never shown untransformed at the old bounds.
+	 */
+	public void end() {
+		if ( !active )
+			return;
+
+		plotContent.getTransforms().remove( transform );
+		active = false;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import java.util.Arrays;
+
+/**
+ * PrefixSumIndex keeps running sums of Y and Y<sup>2</sup> over a {@link SortedXYData}, so that the
+ * count, sum, mean and RMS of any range of points can be computed in constant time, and of any X
+ * window in O(log(n)) time (for the binary search of the window's indexes). This is fast enough to
+ * update statistics of the visible range on every frame of a pan or zoom, for example from a
+ * {@link ViewportEvent} handler.
+ * <p>
+ * Points whose Y is NaN or infinite, such as gap markers, are left out of the statistics, so they
+ * do not spoil the sums of every later window.
+ * <p>
+ * The index does not observe the data. After appending points, call {@link #update()}, which only
+ * processes the new points. The next update rebuilds the index if the data shrank, or if the last
+ * indexed point changed, which catches most other modifications such as clearing and refilling the
+ * data. After changing points in other ways, call {@link #rebuild()}.
+ * <p>
+ * As the statistics are differences of running sums, they lose precision when the sums are much
+ * larger than the values in the window, such as a small window at the end of a very long series
+ * with a large offset.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Jason Winnebeck
+ */
+public class PrefixSumIndex {
+	private final SortedXYData data;
+
+	/**
+	 * sums[i] is the sum of Y for points 0 (inclusive) to i (exclusive); likewise squareSums.
+	 */
+	private double[] sums = new double[16];
+	private double[] squareSums = new double[16];
+
+	/**
+	 * skipped[i] is the number of points with a non-finite Y from 0 (inclusive) to i (exclusive).
+	 */
+	private int[] skipped = new int[16];
+
+	/**
+	 * Number of points indexed.
+	 */
+	private int size = 0;
+
+	/**
+	 * Values of the last indexed point, to detect modifications other than appending.
+	 */
+	private double lastX;
+	private double lastY;
+
+	/**
+	 * Creates an index of the points currently in the data.
+	 */
+	public PrefixSumIndex( SortedXYData data ) {
+		this.data = data;
+		update();
+	}
+
+	public SortedXYData getData() {
+		return data;
+	}
+
+	/**
+	 * Adds the points appended to the data since the last update to the index, in time proportional
+	 * to the number of new points.
+	 */
+	public void update() {
+		int newSize = data.size();
+		if ( newSize < size ||
+		     size > 0 && ( Double.compare( data.getX( size - 1 ), lastX ) != 0 ||
+		                   Double.compare( data.getY( size - 1 ), lastY ) != 0 ) )
+			size = 0;
+
+		if ( newSize + 1 > sums.length ) {
+			int capacity = Math.max( newSize + 1, sums.length * 2 );
+			sums = Arrays.copyOf( sums, capacity );
+			squareSums = Arrays.copyOf( squareSums, capacity );
+			skipped = Arrays.copyOf( skipped, capacity );
+		}
+
+		double sum = sums[size];
+		double squareSum = squareSums[size];
+		int skippedCount = skipped[size];
+		for ( int i = size; i < newSize; ++i ) {
+			double y = data.getY( i );
+			if ( Double.isNaN( y ) || Double.isInfinite( y ) ) {
+				++skippedCount;
+			} else {
+				sum += y;
+				squareSum += y * y;
+			}
+			sums[i + 1] = sum;
+			squareSums[i + 1] = squareSum;
+			skipped[i + 1] = skippedCount;
+		}
+		size = newSize;
+
+		if ( size > 0 ) {
+			lastX = data.getX( size - 1 );
+			lastY = data.getY( size - 1 );
+		}
+	}
+
+	/**
+	 * Indexes all of the points again, for use after points were changed, inserted or removed in a
+	 * way that {@link #update()} might not detect.
+	 */
+	public void rebuild() {
+		size = 0;
+		update();
+	}
+
+	/**
+	 * Returns the number of points indexed, including those with a non-finite Y.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the statistics of the points from index 'from' (inclusive) to 'to' (exclusive) in
+	 * constant time.
+	 */
+	public WindowStatistics getStatistics( int from, int to ) {
+		if ( from < 0 || to > size || from > to )
+			throw new IndexOutOfBoundsException( "from " + from + ", to " + to + ", size " + size );
+
+		return new WindowStatistics( to - from - ( skipped[to] - skipped[from] ),
+		                             sums[to] - sums[from], squareSums[to] - squareSums[from] );
+	}
+
+	/**
+	 * Returns the statistics of the indexed points with xMin &lt;= X &lt;= xMax.
+	 */
+	public WindowStatistics getStatistics( double xMin, double xMax ) {
+		int from = Math.min( size, SortedXYDataUtil.lowerBound( data, xMin ) );
+		int to = Math.min( size, SortedXYDataUtil.upperBound( data, xMax ) );
+		return getStatistics( from, Math.max( from, to ) );
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SampleQueue is a bounded, lock-free queue of samples (series id, x value, y value) written by any
+ * number of producer threads and read by a single consumer, normally the JavaFX application thread
+ * through a {@link SampleQueueFeeder}. It replaces a {@code Platform.runLater} per sample, which
+ * floods the FX event queue when data arrives from several acquisition threads at a high rate.
+ * <p>
+ * Samples are stored in primitive arrays, so offering a sample allocates nothing. A producer claims
+ * a slot with a compare-and-set on the tail position, writes the sample, then publishes it by
+ * setting the slot's sequence number, which the consumer checks before reading. When the queue is
+ * full, the {@link OverflowPolicy} decides whether the sample is dropped or the producer waits.
+ *
+ * @author Jason Winnebeck
+ */
+public class SampleQueue {
+	/**
+	 * What {@link #offer(int, double, double)} does when the queue is full.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * The sample is discarded and counted in {@link #getDroppedCount()}.
+		 */
+		Drop,
+		/**
+		 * The producer parks briefly and retries until the consumer makes room. Only use this when the
+		 * consumer is known to be draining, or producers stop when the FX thread does.
+		 */
+		Wait
+	}
+
+	/**
+	 * Receives the samples taken by {@link #drain(Handler, int)}.
+	 */
+	public interface Handler {
+		void sample( int seriesId, double x, double y );
+	}
+
+	private static final long WAIT_NANOS = 100L * 1000L;
+
+	private final int mask;
+	private final OverflowPolicy overflowPolicy;
+
+	private final int[] seriesIds;
+	private final double[] xs;
+	private final double[] ys;
+
+	/**
+	 * Sequence number of each slot. A slot at position p is free for a producer when its sequence is
+	 * p, and holds a published sample for the consumer when it is p + 1.
+	 */
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * Next position to read, only used by the consumer.
+	 */
+	private long head = 0;
+
+	/**
+	 * Creates a queue dropping samples when full.
+	 *
+	 * @param capacity maximum number of samples held, rounded up to a power of two
+	 */
+	public SampleQueue( int capacity ) {
+		this( capacity, OverflowPolicy.Drop );
+	}
+
+	/**
+	 * Creates a queue.
+	 *
+	 * @param capacity       maximum number of samples held, rounded up to a power of two
+	 * @param overflowPolicy what to do with samples offered while the queue is full
+	 */
+	public SampleQueue( int capacity, OverflowPolicy overflowPolicy ) {
+		if ( capacity < 1 || capacity > 1 << 30 )
+			throw new IllegalArgumentException( "capacity must be between 1 and 2^30" );
+
+		int size = Integer.highestOneBit( capacity );
+		if ( size < capacity )
+			size <<= 1;
+
+		mask = size - 1;
+		this.overflowPolicy = overflowPolicy;
+		seriesIds = new int[size];
+		xs = new double[size];
+		ys = new double[size];
+		sequences = new AtomicLongArray( size );
+		for ( int i = 0; i < size; ++i ) {
+			sequences.set( i, i );
+		}
+	}
+
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	/**
+	 * Returns the number of samples dropped because the queue was full.
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * Adds a sample to the queue. May be called from any thread.
+	 *
+	 * @return false if the sample was dropped because the queue was full
+	 */
+	public boolean offer( int seriesId, double x, double y ) {
+		long pos = tail.get();
+		while ( true ) {
+			int index = (int) pos & mask;
+			long diff = sequences.get( index ) - pos;
+			if ( diff == 0 ) {
+				if ( tail.compareAndSet( pos, pos + 1 ) ) {
+					seriesIds[index] = seriesId;
+					xs[index] = x;
+					ys[index] = y;
+					//The volatile write publishes the plain writes above to the consumer
+					sequences.set( index, pos + 1 );
+					return true;
+				}
+				pos = tail.get();
+
+			} else if ( diff < 0 ) {
+				//The slot still holds a sample from the previous lap, so the queue is full
+				if ( overflowPolicy == OverflowPolicy.Drop ) {
+					dropped.incrementAndGet();
+					return false;
+				}
+				LockSupport.parkNanos( WAIT_NANOS );
+				pos = tail.get();
+
+			} else {
+				//Another producer claimed this position first
+				pos = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Passes up to maxSamples published samples to the handler, in the order they were claimed,
+	 * and frees their slots. Must only be called from one thread at a time.
+	 *
+	 * @return the number of samples passed to the handler
+	 */
+	public int drain( Handler handler, int maxSamples ) {
+		int count = 0;
+		while ( count < maxSamples ) {
+			int index = (int) head & mask;
+			if ( sequences.get( index ) != head + 1 )
+				break;
+
+			handler.sample( seriesIds[index], xs[index], ys[index] );
+			sequences.set( index, head + mask + 1 );
+			++head;
+			++count;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns approximately how many samples are waiting to be drained.
+	 */
+	public int size() {
+		return (int) Math.max( 0L, Math.min( tail.get() - head, mask + 1L ) );
+	}
+}
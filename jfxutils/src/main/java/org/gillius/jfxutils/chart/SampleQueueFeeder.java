@@ -0,0 +1,197 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SampleQueueFeeder drains a {@link SampleQueue} on the JavaFX application thread once per pulse and
+ * adds the samples to the series registered for their series ids. The samples of each series are
+ * added in a single change per pulse, followed by a second change removing the oldest points only
+ * when {@link #setMaxPointsPerSeries(int) maxPointsPerSeries} is exceeded. So however fast the
+ * producers write, the chart processes at most two changes per series and lays out at most once per
+ * frame, and the FX event queue is never used for the data.
+ * <p>
+ * A series can be fed through a {@link BufferedSeriesAppender}, so that samples for a chart that is
+ * not showing are buffered instead of being added. Samples for ids with no registered series are
+ * discarded.
+ * <pre>
+SampleQueue queue = new SampleQueue( 1 &lt;&lt; 16 );
+SampleQueueFeeder feeder = new SampleQueueFeeder( queue );
+feeder.addSeries( 0, series );
+feeder.start();
+//From any acquisition thread:
+queue.offer( 0, time, value );</pre>
+ * All methods must be called on the JavaFX application thread.
+ *
+ * @author Jason Winnebeck
+ */
+public class SampleQueueFeeder {
+	private final SampleQueue queue;
+
+	private final Map<Integer, Target> targets = new HashMap<Integer, Target>();
+
+	private int maxSamplesPerPulse = Integer.MAX_VALUE;
+	private int maxPointsPerSeries = Integer.MAX_VALUE;
+
+	private final SampleQueue.Handler handler = new SampleQueue.Handler() {
+		@Override
+		public void sample( int seriesId, double x, double y ) {
+			Target target = targets.get( seriesId );
+			if ( target != null )
+				target.pending.add( new XYChart.Data<Number, Number>( x, y ) );
+		}
+	};
+
+	private final AnimationTimer timer = new AnimationTimer() {
+		@Override
+		public void handle( long now ) {
+			drain();
+		}
+	};
+
+	public SampleQueueFeeder( SampleQueue queue ) {
+		this.queue = queue;
+	}
+
+	public SampleQueue getQueue() {
+		return queue;
+	}
+
+	/**
+	 * Adds the samples with the given id to the series.
+	 */
+	public void addSeries( int seriesId, XYChart.Series<Number, Number> series ) {
+		addSeries( seriesId, new BufferedSeriesAppender<Number, Number>(
+				series, new SimpleBooleanProperty( true ) ) );
+	}
+
+	/**
+	 * Adds the samples with the given id to the series through the appender, which buffers them
+	 * while it is not active. The appender's {@link BufferedSeriesAppender#setMaxBufferedCount(int)
+	 * buffer limit} is set to {@link #getMaxPointsPerSeries()}.
+	 */
+	public void addSeries( int seriesId, BufferedSeriesAppender<Number, Number> appender ) {
+		appender.setMaxBufferedCount( maxPointsPerSeries );
+		targets.put( seriesId, new Target( appender ) );
+	}
+
+	/**
+	 * Stops adding the samples with the given id, which are then discarded.
+	 */
+	public void removeSeries( int seriesId ) {
+		targets.remove( seriesId );
+	}
+
+	public int getMaxSamplesPerPulse() {
+		return maxSamplesPerPulse;
+	}
+
+	/**
+	 * Sets the most samples taken from the queue per pulse, to bound the time spent in a frame. The
+	 * rest stay in the queue for the next pulse. The default is no limit.
+	 *
+	 * @throws IllegalArgumentException if maxSamplesPerPulse is less than 1, which would stop draining
+	 */
+	public void setMaxSamplesPerPulse( int maxSamplesPerPulse ) {
+		if ( maxSamplesPerPulse < 1 )
+			throw new IllegalArgumentException( "maxSamplesPerPulse must be at least 1" );
+		this.maxSamplesPerPulse = maxSamplesPerPulse;
+	}
+
+	public int getMaxPointsPerSeries() {
+		return maxPointsPerSeries;
+	}
+
+	/**
+	 * Sets the most points kept in each series. When samples are added past it, the oldest points
+	 * are removed in the same pulse. The same limit applies to the samples buffered by an inactive
+	 * {@link BufferedSeriesAppender}. Samples beyond it within one pulse are dropped before they are
+	 * added. The default is no limit.
+	 *
+	 * @throws IllegalArgumentException if maxPointsPerSeries is less than 1
+	 */
+	public void setMaxPointsPerSeries( int maxPointsPerSeries ) {
+		if ( maxPointsPerSeries < 1 )
+			throw new IllegalArgumentException( "maxPointsPerSeries must be at least 1" );
+		this.maxPointsPerSeries = maxPointsPerSeries;
+		for ( Target target : targets.values() ) {
+			target.appender.setMaxBufferedCount( maxPointsPerSeries );
+		}
+	}
+
+	/**
+	 * Starts draining the queue every pulse.
+	 */
+	public void start() {
+		timer.start();
+	}
+
+	/**
+	 * Stops draining the queue. Samples keep accumulating until it is full.
+	 */
+	public void stop() {
+		timer.stop();
+	}
+
+	/**
+	 * Drains the queue and adds the samples to their series now. This is called every pulse once
+	 * started.
+	 *
+	 * @return the number of samples taken from the queue
+	 */
+	public int drain() {
+		int count = queue.drain( handler, maxSamplesPerPulse );
+		if ( count == 0 )
+			return 0;
+
+		for ( Target target : targets.values() ) {
+			if ( target.pending.isEmpty() )
+				continue;
+
+			//Samples that would be removed again in this pulse are never added
+			List<XYChart.Data<Number, Number>> pending = target.pending;
+			if ( pending.size() > maxPointsPerSeries )
+				pending.subList( 0, pending.size() - maxPointsPerSeries ).clear();
+			target.appender.appendAll( pending );
+			pending.clear();
+
+			List<XYChart.Data<Number, Number>> data = target.appender.getSeries().getData();
+			int excess = data.size() - maxPointsPerSeries;
+			if ( excess > 0 )
+				target.appender.getSeries().getData().remove( 0, excess );
+		}
+		return count;
+	}
+
+	private static class Target {
+		private final BufferedSeriesAppender<Number, Number> appender;
+		private final List<XYChart.Data<Number, Number>> pending =
+				new ArrayList<XYChart.Data<Number, Number>>();
+
+		private Target( BufferedSeriesAppender<Number, Number> appender ) {
+			this.appender = appender;
+		}
+	}
+}
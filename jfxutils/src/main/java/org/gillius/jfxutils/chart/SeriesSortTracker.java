@@ -0,0 +1,209 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.XYChart;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SeriesSortTracker keeps track of whether the series of an {@link XYChart} are sorted by X, so that
+ * {@link SortedXYDataUtil}'s binary searches can be used on them when they are and a linear scan when
+ * they are not, without checking every point on each use.
+ * <p>
+ * A series is scanned once, when first asked about. After that, each change to its data list only
+ * compares the changed points with their neighbors, by counting the pairs of adjacent points whose X
+ * values decrease. Changes to the X value of a {@link XYChart.Data} already in a series are not seen;
+ * call {@link #invalidate()} after making them.
+ * <p>
+ * SeriesSortTracker must only be used from the thread that changes the series, normally the FX
+ * thread.
+ *
+ * @author Jason Winnebeck
+ */
+class SeriesSortTracker {
+	private final XYChart<Object, Object> chart;
+	private final Map<XYChart.Series<?, ?>, SeriesOrder<Object, Object>> orders =
+			new IdentityHashMap<XYChart.Series<?, ?>, SeriesOrder<Object, Object>>();
+
+	private final ListChangeListener<XYChart.Series<Object, Object>> seriesListener =
+			new ListChangeListener<XYChart.Series<Object, Object>>() {
+				@Override
+				public void onChanged( Change<? extends XYChart.Series<Object, Object>> c ) {
+					while ( c.next() ) {
+						for ( XYChart.Series<Object, Object> series : c.getRemoved() ) {
+							SeriesOrder<?, ?> order = orders.remove( series );
+							if ( order != null )
+								order.dispose();
+						}
+					}
+				}
+			};
+
+	@SuppressWarnings( "unchecked" )
+	SeriesSortTracker( XYChart<?, ?> chart ) {
+		this.chart = (XYChart<Object, Object>) chart;
+		this.chart.getData().addListener( seriesListener );
+	}
+
+	/**
+	 * Returns true if the X values of the series, which must be in the chart, never decrease.
+	 */
+	@SuppressWarnings( "unchecked" )
+	boolean isSorted( XYChart.Series<?, ?> series ) {
+		SeriesOrder<Object, Object> order = orders.get( series );
+		if ( order == null ) {
+			order = new SeriesOrder<Object, Object>( (XYChart.Series<Object, Object>) series, chart.getXAxis() );
+			orders.put( series, order );
+		}
+		return order.isSorted();
+	}
+
+	/**
+	 * Makes every series be scanned again on the next use.
+	 */
+	void invalidate() {
+		for ( SeriesOrder<?, ?> order : orders.values() ) {
+			order.invalidate();
+		}
+	}
+
+	/**
+	 * Stops following the chart and its series.
+	 */
+	void dispose() {
+		chart.getData().removeListener( seriesListener );
+		for ( SeriesOrder<?, ?> order : orders.values() ) {
+			order.dispose();
+		}
+		orders.clear();
+	}
+
+	/**
+	 * Follows the order of one series. This is also used on its own by {@link DataExtentIndex}.
+	 */
+	static class SeriesOrder<X, Y> implements ListChangeListener<XYChart.Data<X, Y>> {
+		private final XYChart.Series<X, Y> series;
+		private final Axis<X> xAxis;
+
+		/**
+		 * Number of adjacent pairs whose X values decrease (or are NaN). The series is sorted when 0.
+		 */
+		private int descents;
+		private boolean dirty = true;
+
+		/**
+		 * Starts following the series, converting X values with the axis, or when null, as Numbers.
+		 */
+		SeriesOrder( XYChart.Series<X, Y> series, Axis<X> xAxis ) {
+			this.series = series;
+			this.xAxis = xAxis;
+			series.getData().addListener( this );
+		}
+
+		boolean isSorted() {
+			if ( dirty )
+				rescan();
+			return descents == 0;
+		}
+
+		void invalidate() {
+			dirty = true;
+		}
+
+		void dispose() {
+			series.getData().removeListener( this );
+		}
+
+		@Override
+		public void onChanged( Change<? extends XYChart.Data<X, Y>> c ) {
+			if ( dirty )
+				return;
+
+			//Only a single added, removed, or replaced range is followed; anything else is rescanned
+			int changes = 0;
+			while ( c.next() ) {
+				++changes;
+			}
+			c.reset();
+			c.next();
+			if ( changes != 1 || c.wasPermutated() || c.wasUpdated() ) {
+				dirty = true;
+				return;
+			}
+
+			List<? extends XYChart.Data<X, Y>> data = c.getList();
+			int from = c.getFrom();
+			int to = c.getTo();
+			double prev = from > 0 ? getX( data.get( from - 1 ) ) : Double.NaN;
+			double next = to < data.size() ? getX( data.get( to ) ) : Double.NaN;
+			boolean hasPrev = from > 0;
+			boolean hasNext = to < data.size();
+
+			//Remove the pairs of the old range and add those of the new
+			descents -= countDescents( c.getRemoved(), 0, c.getRemovedSize(), prev, hasPrev, next, hasNext );
+			descents += countDescents( data, from, to, prev, hasPrev, next, hasNext );
+		}
+
+		/**
+		 * Counts the descending pairs in the sequence prev, items[from..to), next, where prev and next
+		 * are only included when present.
+		 */
+		private int countDescents( List<? extends XYChart.Data<X, Y>> items, int from, int to,
+		                           double prev, boolean hasPrev, double next, boolean hasNext ) {
+			int ret = 0;
+			boolean hasLast = hasPrev;
+			double last = prev;
+			for ( int i = from; i < to; ++i ) {
+				double x = getX( items.get( i ) );
+				if ( hasLast && isDescent( last, x ) )
+					++ret;
+				last = x;
+				hasLast = true;
+			}
+			if ( hasLast && hasNext && isDescent( last, next ) )
+				++ret;
+			return ret;
+		}
+
+		private void rescan() {
+			descents = 0;
+			List<XYChart.Data<X, Y>> data = series.getData();
+			for ( int i = 1; i < data.size(); ++i ) {
+				if ( isDescent( getX( data.get( i - 1 ) ), getX( data.get( i ) ) ) )
+					++descents;
+			}
+			dirty = false;
+		}
+
+		private double getX( XYChart.Data<X, Y> data ) {
+			X x = data.getXValue();
+			if ( xAxis != null )
+				return xAxis.toNumericValue( x );
+			return ( (Number) x ).doubleValue();
+		}
+
+		private static boolean isDescent( double a, double b ) {
+			//Written so that NaN values count as unsorted
+			return !( b >= a );
+		}
+	}
+}
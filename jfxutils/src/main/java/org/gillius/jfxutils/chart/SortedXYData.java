@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+/**
+ * A read-only view of a series of points whose X values are sorted in non-decreasing order, with
+ * primitive access to the values. Algorithms such as {@link SortedXYDataUtil#select} use the sort
+ * order to binary search X ranges instead of scanning all points.
+ *
+ * @see DoubleXYData
+ * @see SortedXYDataUtil#forSeries
+ */
+public interface SortedXYData {
+	/**
+	 * Returns the number of points.
+	 */
+	int size();
+
+	/**
+	 * Returns the X value of the point at the index. X values never decrease as the index increases.
+	 */
+	double getX( int index );
+
+	/**
+	 * Returns the Y value of the point at the index.
+	 */
+	double getY( int index );
+}
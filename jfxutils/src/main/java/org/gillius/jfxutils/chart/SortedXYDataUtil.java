@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.XYChart;
+
+import java.util.List;
+
+/**
+ * SortedXYDataUtil contains searching and selection methods for {@link SortedXYData}.
+ *
+ * @author Jason Winnebeck
+ */
+public class SortedXYDataUtil {
+	/**
+	 * Returns the index of the first point whose X is greater than or equal to x, or the size of the
+	 * data if there is none, in O(log(n)) time.
+	 */
+	public static int lowerBound( SortedXYData data, double x ) {
+		int low = 0;
+		int high = data.size();
+		while ( low < high ) {
+			int mid = ( low + high ) >>> 1;
+			if ( data.getX( mid ) < x )
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the index of the first point whose X is greater than x, or the size of the data if
+	 * there is none, in O(log(n)) time.
+	 */
+	public static int upperBound( SortedXYData data, double x ) {
+		int low = 0;
+		int high = data.size();
+		while ( low < high ) {
+			int mid = ( low + high ) >>> 1;
+			if ( data.getX( mid ) <= x )
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the indexes of the points inside the window (in data coordinates, bounds inclusive).
+	 *
+	 * @see #select(SortedXYData, double, double, double, double)
+	 */
+	public static IndexRangeSet select( SortedXYData data, Rectangle2D window ) {
+		return select( data, window.getMinX(), window.getMaxX(), window.getMinY(), window.getMaxY() );
+	}
+
+	/**
+	 * Returns the indexes of the points with xMin &lt;= X &lt;= xMax and yMin &lt;= Y &lt;= yMax. The X
+	 * interval is found by binary search, then only the points within it are filtered on Y, so the
+	 * cost is O(log(n) + m) where m is the number of points in the X interval, and memory used is
+	 * proportional to the number of runs of consecutive selected points.
+	 */
+	public static IndexRangeSet select( SortedXYData data, double xMin, double xMax,
+	                                    double yMin, double yMax ) {
+		int from = lowerBound( data, xMin );
+		int to = upperBound( data, xMax );
+		return select( data, from, to, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, yMin, yMax );
+	}
+
+	/**
+	 * Returns the indexes of the points with xMin &lt;= X &lt;= xMax and yMin &lt;= Y &lt;= yMax, like
+	 * {@link #select(SortedXYData, double, double, double, double)}, but scanning every point so
+	 * that the data does not need to be sorted by X, as for a scatter chart. This takes O(n) time.
+	 */
+	public static IndexRangeSet selectUnsorted( SortedXYData data, double xMin, double xMax,
+	                                            double yMin, double yMax ) {
+		return select( data, 0, data.size(), xMin, xMax, yMin, yMax );
+	}
+
+	/**
+	 * Returns true if the X values of the data never decrease, so that the binary searching methods
+	 * of this class can be used on it. This takes O(n) time.
+	 */
+	public static boolean isSorted( SortedXYData data ) {
+		int size = data.size();
+		for ( int i = 1; i < size; ++i ) {
+			//Written so that NaN values count as unsorted
+			if ( !( data.getX( i ) >= data.getX( i - 1 ) ) )
+				return false;
+		}
+		return true;
+	}
+
+	private static IndexRangeSet select( SortedXYData data, int from, int to,
+	                                     double xMin, double xMax, double yMin, double yMax ) {
+		IndexRangeSet ret = new IndexRangeSet();
+		int runStart = -1;
+		for ( int i = from; i < to; ++i ) {
+			double x = data.getX( i );
+			double y = data.getY( i );
+			if ( x >= xMin && x <= xMax && y >= yMin && y <= yMax ) {
+				if ( runStart < 0 )
+					runStart = i;
+			} else if ( runStart >= 0 ) {
+				ret.addRange( runStart, i );
+				runStart = -1;
+			}
+		}
+		if ( runStart >= 0 )
+			ret.addRange( runStart, to );
+
+		return ret;
+	}
+
+	/**
+	 * Returns a live {@link SortedXYData} view of a series, converting values with the axes'
+	 * {@link Axis#toNumericValue(Object)}. The series data must be sorted by X to use the binary
+	 * searching methods; check with {@link #isSorted(SortedXYData)} if unsure, as a ScatterChart or a
+	 * LineChart with no axis sorting policy may hold unsorted series. The view reads the
+	 * series' data list directly, so it must only be used on the thread modifying the series.
+	 */
+	public static <X, Y> SortedXYData forSeries( XYChart.Series<X, Y> series,
+	                                             Axis<X> xAxis, Axis<Y> yAxis ) {
+		return new SeriesView<X, Y>( series, xAxis, yAxis );
+	}
+
+	private static class SeriesView<X, Y> implements SortedXYData {
+		private final XYChart.Series<X, Y> series;
+		private final Axis<X> xAxis;
+		private final Axis<Y> yAxis;
+
+		private SeriesView( XYChart.Series<X, Y> series, Axis<X> xAxis, Axis<Y> yAxis ) {
+			this.series = series;
+			this.xAxis = xAxis;
+			this.yAxis = yAxis;
+		}
+
+		@Override
+		public int size() {
+			return series.getData().size();
+		}
+
+		@Override
+		public double getX( int index ) {
+			return xAxis.toNumericValue( data().get( index ).getXValue() );
+		}
+
+		@Override
+		public double getY( int index ) {
+			return yAxis.toNumericValue( data().get( index ).getYValue() );
+		}
+
+		private List<XYChart.Data<X, Y>> data() {
+			return series.getData();
+		}
+	}
+}
@@ -19,6 +19,8 @@ package org.gillius.jfxutils.chart;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -28,9 +30,14 @@ import javafx.collections.ObservableList;
 import javafx.geometry.Dimension2D;
 import javafx.scene.chart.ValueAxis;
 import javafx.util.Duration;
+import org.gillius.jfxutils.chart.ChartFlightEvents.AxisLayoutEvent;
+import org.gillius.jfxutils.chart.ChartFlightEvents.AxisRangeEvent;
+import org.gillius.jfxutils.chart.ChartFlightEvents.TickLabelFormatEvent;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The StableTicksAxis places tick marks at consistent (axis value rather than graphical) locations.
@@ -46,6 +53,12 @@ public class StableTicksAxis extends ValueAxis<Number> {
 
 	private static final int numMinorTicks = 3;
 
+	/**
+	 * Maximum number of labels kept in {@link #tickLabels} before it is cleared, so that following
+	 * live data for a long time does not grow it without bound.
+	 */
+	private static final int maxCachedTickLabels = 256;
+
 	private final Timeline animationTimeline = new Timeline();
 	private final WritableValue<Double> scaleValue = new WritableValue<Double>() {
 		@Override
@@ -63,6 +76,42 @@ public class StableTicksAxis extends ValueAxis<Number> {
 
 	private List<Number> minorTicks;
 
+	private long lastTickCalculationNanos;
+
+	/**
+	 * Size of the widest expected tick label along the axis, or NaN when it must be measured again
+	 * because the font, rotation or side changed. Measuring creates a Text node and applies CSS, so
+	 * it is too expensive to repeat on every range change.
+	 */
+	private double labelSize = Double.NaN;
+
+	/**
+	 * Inputs and result of the last {@link #calculateTickSpacing(double, int)} call.
+	 */
+	private double lastSpacingDelta = Double.NaN;
+	private int lastSpacingMaxTicks;
+	private double lastTickSpacing;
+
+	/**
+	 * Labels already formatted for tick values at the current tick spacing, when the formatter is
+	 * {@link #isCacheable(AxisTickFormatter) cacheable}. When panning or following, most ticks stay in the window, so
+	 * their labels are reused instead of formatted again. Cleared when the tick spacing or the
+	 * formatter changes.
+	 */
+	private final Map<Double, String> tickLabels = new HashMap<Double, String>();
+	private double tickLabelSpacing = Double.NaN;
+
+	/**
+	 * If true, the tick spacing is computed from {@link #followSpanProperty()} rather than from the
+	 * bounds, so that it stays fixed while the window scrolls.
+	 */
+	private BooleanProperty following = new SimpleBooleanProperty( false );
+
+	/**
+	 * Width of the window, in axis units, kept by {@link #scrollTo(double)} while following.
+	 */
+	private DoubleProperty followSpan = new SimpleDoubleProperty( 10.0 );
+
 	/**
 	 * Amount of padding to add on the each end of the axis when auto ranging.
 	 */
@@ -74,10 +123,32 @@ public class StableTicksAxis extends ValueAxis<Number> {
 	private BooleanProperty forceZeroInRange = new SimpleBooleanProperty( true );
 
 	public StableTicksAxis() {
+		init();
 	}
 
 	public StableTicksAxis( double lowerBound, double upperBound ) {
 		super( lowerBound, upperBound );
+		init();
+	}
+
+	private void init() {
+		InvalidationListener labelSizeListener = new InvalidationListener() {
+			@Override
+			public void invalidated( Observable observable ) {
+				labelSize = Double.NaN;
+			}
+		};
+		tickLabelFontProperty().addListener( labelSizeListener );
+		tickLabelRotationProperty().addListener( labelSizeListener );
+		sideProperty().addListener( labelSizeListener );
+	}
+
+	/**
+	 * Returns how long the last call to {@link #calculateTickValues(double, Object)} took, in
+	 * nanoseconds, for diagnostics such as the {@link ChartDiagnosticsOverlay}.
+	 */
+	public long getLastTickCalculationNanos() {
+		return lastTickCalculationNanos;
 	}
 
 	public AxisTickFormatter getAxisTickFormatter() {
@@ -86,6 +157,7 @@ public class StableTicksAxis extends ValueAxis<Number> {
 
 	public void setAxisTickFormatter( AxisTickFormatter axisTickFormatter ) {
 		this.axisTickFormatter = axisTickFormatter;
+		tickLabels.clear();
 	}
 
 	/**
@@ -130,8 +202,71 @@ public class StableTicksAxis extends ValueAxis<Number> {
 		this.forceZeroInRange.set( forceZeroInRange );
 	}
 
+	/**
+	 * If true, the axis is in "follow" mode for scrolling live data: the tick spacing is computed
+	 * from the {@link #followSpanProperty() follow span} instead of the current bounds, so when the
+	 * window slides with {@link #scrollTo(double)} only the offset changes. Tick values are always
+	 * whole multiples of the spacing, so ticks that stay in the window keep exactly the same value
+	 * and label from frame to frame.
+	 */
+	public boolean isFollowing() {
+		return following.get();
+	}
+
+	/**
+	 * If true, the tick spacing is computed from the follow span rather than the bounds.
+	 *
+	 * @see #isFollowing()
+	 */
+	public BooleanProperty followingProperty() {
+		return following;
+	}
+
+	/**
+	 * If true, the tick spacing is computed from the follow span rather than the bounds.
+	 *
+	 * @see #isFollowing()
+	 */
+	public void setFollowing( boolean following ) {
+		this.following.set( following );
+	}
+
+	/**
+	 * Width of the window, in axis units, kept by {@link #scrollTo(double)} while following.
+	 */
+	public double getFollowSpan() {
+		return followSpan.get();
+	}
+
+	/**
+	 * Width of the window, in axis units, kept by {@link #scrollTo(double)} while following.
+	 */
+	public DoubleProperty followSpanProperty() {
+		return followSpan;
+	}
+
+	/**
+	 * Width of the window, in axis units, kept by {@link #scrollTo(double)} while following.
+	 */
+	public void setFollowSpan( double followSpan ) {
+		this.followSpan.set( followSpan );
+	}
+
+	/**
+	 * Slides the window so that it ends at the given value and spans the
+	 * {@link #followSpanProperty() follow span}, turning off auto ranging. This is meant to be called
+	 * once per frame for live data, typically with {@link #followingProperty() following} set.
+	 */
+	public void scrollTo( double upperBound ) {
+		setAutoRanging( false );
+		setLowerBound( upperBound - followSpan.get() );
+		setUpperBound( upperBound );
+	}
+
 	@Override
 	protected Range autoRange( double minValue, double maxValue, double length, double labelSize ) {
+		AxisRangeEvent event = new AxisRangeEvent();
+		event.begin();
 //		System.out.printf( "autoRange(%f, %f, %f, %f)",
 //		                   minValue, maxValue, length, labelSize );
 		//By dweil: if the range is very small, display it like a flat line, the scaling doesn't work very well at these
@@ -173,21 +308,36 @@ public class StableTicksAxis extends ValueAxis<Number> {
 
 		Range ret = getRange( minValue, maxValue );
 //		System.out.printf( " = %s%n", ret );
+		commitRangeEvent( event, "autoRange", length, ret, 0 );
 		return ret;
 	}
 
 	private Range getRange( double minValue, double maxValue ) {
 		double length = getLength();
-		double delta = maxValue - minValue;
+		double delta = following.get() ? followSpan.get() : maxValue - minValue;
 		double scale = calculateNewScale( length, minValue, maxValue );
 
 		int maxTicks = Math.max( 1, (int) ( length / getLabelSize() ) );
 
 		Range ret;
-		ret = new Range( minValue, maxValue, calculateTickSpacing( delta, maxTicks ), scale );
+		ret = new Range( minValue, maxValue, getTickSpacing( delta, maxTicks ), scale );
 		return ret;
 	}
 
+	/**
+	 * Returns {@link #calculateTickSpacing(double, int)}, reusing the last result when the inputs did
+	 * not change, as when following or when only the offset of the window changes.
+	 */
+	private double getTickSpacing( double delta, int maxTicks ) {
+		//noinspection FloatingPointEquality
+		if ( delta != lastSpacingDelta || maxTicks != lastSpacingMaxTicks ) {
+			lastTickSpacing = calculateTickSpacing( delta, maxTicks );
+			lastSpacingDelta = delta;
+			lastSpacingMaxTicks = maxTicks;
+		}
+		return lastTickSpacing;
+	}
+
 	public static double calculateTickSpacing( double delta, int maxTicks ) {
 		if ( delta == 0.0 )
 			return 0.0;
@@ -250,6 +400,8 @@ public class StableTicksAxis extends ValueAxis<Number> {
 
 	@Override
 	protected void setRange( Object range, boolean animate ) {
+		AxisRangeEvent event = new AxisRangeEvent();
+		event.begin();
 		Range rangeVal = (Range) range;
 //		System.out.format( "StableTicksAxis.setRange (%s, %s)%n",
 //		                   range, animate );
@@ -273,6 +425,12 @@ public class StableTicksAxis extends ValueAxis<Number> {
 		setUpperBound( rangeVal.high );
 
 		axisTickFormatter.setRange( rangeVal.low, rangeVal.high, rangeVal.tickSpacing );
+		//noinspection FloatingPointEquality
+		if ( rangeVal.tickSpacing != tickLabelSpacing || tickLabels.size() > maxCachedTickLabels ) {
+			tickLabels.clear();
+			tickLabelSpacing = rangeVal.tickSpacing;
+		}
+		commitRangeEvent( event, "setRange", getLength(), rangeVal, 0 );
 	}
 
 	@Override
@@ -284,33 +442,109 @@ public class StableTicksAxis extends ValueAxis<Number> {
 
 	@Override
 	protected List<Number> calculateTickValues( double length, Object range ) {
+		long start = System.nanoTime();
+		AxisRangeEvent event = new AxisRangeEvent();
+		event.begin();
 		Range rangeVal = (Range) range;
 //		System.out.format( "StableTicksAxis.calculateTickValues (length=%f, range=%s)",
 //		                   length, rangeVal );
+		int numTicks = (int) (rangeVal.getDelta() / rangeVal.tickSpacing) + 1;
+		List<Number> ret = new ArrayList<Number>( numTicks + 1 );
+		minorTicks = new ArrayList<Number>( ( numTicks + 2 ) * numMinorTicks );
+		calculateTicks( rangeVal.low, rangeVal.high, rangeVal.tickSpacing, ret, minorTicks );
+//		System.out.printf( " = %s%n", ret );
+		commitRangeEvent( event, "calculateTickValues", length, rangeVal, ret.size() );
+		lastTickCalculationNanos = System.nanoTime() - start;
+		return ret;
+	}
+
+	/**
+	 * Generates the major and minor tick values for a range with the given tick spacing, as used by
+	 * {@link #calculateTickValues(double, Object)}.
+	 */
+	static void calculateTicks( double low, double high, double tickSpacing,
+	                            List<Number> majorTicks, List<Number> minorTicks ) {
 		//Use floor so we start generating ticks before the axis starts -- this is really only relevant
 		//because of the minor ticks before the first visible major tick. We'll generate a first
-		//invisible major tick but the ValueAxis seems to filter it out.
-		double firstTick = Math.floor( rangeVal.low / rangeVal.tickSpacing ) * rangeVal.tickSpacing;
+		//invisible major tick but the ValueAxis seems to filter it out. Ticks are computed as whole
+		//multiples of the spacing so that a tick has exactly the same value whatever the window offset.
+		//The index stays a double, as casting to long would saturate for very large or small ranges.
+		double firstTickIndex = Math.floor( low / tickSpacing );
 		//Generate one more tick than we expect, for "overlap" to get minor ticks on both sides of the
 		//first and last major tick.
-		int numTicks = (int) (rangeVal.getDelta() / rangeVal.tickSpacing) + 1;
-		List<Number> ret = new ArrayList<Number>( numTicks + 1 );
-		minorTicks = new ArrayList<Number>( ( numTicks + 2 ) * numMinorTicks );
-		double minorTickSpacing = rangeVal.tickSpacing / ( numMinorTicks + 1 );
+		int numTicks = (int) ( ( high - low ) / tickSpacing ) + 1;
+		double minorTickSpacing = tickSpacing / ( numMinorTicks + 1 );
 		for ( int i = 0; i <= numTicks; ++i ) {
-			double majorTick = firstTick + rangeVal.tickSpacing * i;
-			ret.add( majorTick );
+			double majorTick = ( firstTickIndex + i ) * tickSpacing;
+			majorTicks.add( majorTick );
 			for ( int j = 1; j <= numMinorTicks; ++j ) {
 				minorTicks.add( majorTick + minorTickSpacing * j );
 			}
 		}
-//		System.out.printf( " = %s%n", ret );
-		return ret;
+	}
+
+	/**
+	 * Returns true if the formatter's labels depend only on the value and tick spacing. Subclasses of the
+	 * built in formatters may override setRange to use the low and high values, so only those classes
+	 * themselves are trusted, unless the subclass opts in through {@link CacheableTickFormatter}.
+	 */
+	static boolean isCacheable( AxisTickFormatter formatter ) {
+		Class<?> type = formatter.getClass();
+		return formatter instanceof CacheableTickFormatter ||
+		       type == DefaultAxisTickFormatter.class || type == FixedFormatTickFormatter.class;
 	}
 
 	@Override
 	protected String getTickMarkLabel( Number number ) {
-		return axisTickFormatter.format( number );
+		boolean cacheable = isCacheable( axisTickFormatter );
+		Double key = number.doubleValue();
+		String ret = cacheable ? tickLabels.get( key ) : null;
+		if ( ret != null )
+			return ret;
+
+		TickLabelFormatEvent event = new TickLabelFormatEvent();
+		event.begin();
+		ret = axisTickFormatter.format( number );
+		if ( cacheable )
+			tickLabels.put( key, ret );
+		event.end();
+		if ( event.shouldCommit() ) {
+			event.formatter = axisTickFormatter.getClass();
+			event.value = number.doubleValue();
+			event.label = ret;
+			event.commit();
+		}
+		return ret;
+	}
+
+	@Override
+	protected void layoutChildren() {
+		AxisLayoutEvent event = new AxisLayoutEvent();
+		event.begin();
+		super.layoutChildren();
+		event.end();
+		if ( event.shouldCommit() ) {
+			event.side = String.valueOf( getSide() );
+			event.width = getWidth();
+			event.height = getHeight();
+			event.tickCount = getTickMarks().size();
+			event.commit();
+		}
+	}
+
+	private void commitRangeEvent( AxisRangeEvent event, String operation, double length, Range range,
+	                               int tickCount ) {
+		event.end();
+		if ( event.shouldCommit() ) {
+			event.operation = operation;
+			event.side = String.valueOf( getSide() );
+			event.length = length;
+			event.lowerBound = range.low;
+			event.upperBound = range.high;
+			event.tickSpacing = range.tickSpacing;
+			event.tickCount = tickCount;
+			event.commit();
+		}
 	}
 
 	private double getLength() {
@@ -321,12 +555,15 @@ public class StableTicksAxis extends ValueAxis<Number> {
 	}
 
 	private double getLabelSize() {
-		Dimension2D dim = measureTickMarkLabelSize( "-888.88E-88", getTickLabelRotation() );
-		if ( getSide().isHorizontal() ) {
-			return dim.getWidth();
-		} else {
-			return dim.getHeight();
+		if ( Double.isNaN( labelSize ) ) {
+			Dimension2D dim = measureTickMarkLabelSize( "-888.88E-88", getTickLabelRotation() );
+			if ( getSide().isHorizontal() ) {
+				labelSize = dim.getWidth();
+			} else {
+				labelSize = dim.getHeight();
+			}
 		}
+		return labelSize;
 	}
 
 	private static class Range {
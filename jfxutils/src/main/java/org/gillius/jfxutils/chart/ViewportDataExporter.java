@@ -0,0 +1,425 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.application.Platform;
+import javafx.scene.chart.XYChart;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * ViewportDataExporter saves the data points within the X axis range currently shown by a chart,
+ * for example after zooming with {@link ChartZoomManager} or panning with {@link ChartPanManager},
+ * to a file on a background thread. The points are encoded into a direct buffer written through a
+ * {@link FileChannel}.
+ * <p>
+ * By default the series of the chart are exported. As the chart's series may be changed on the
+ * JavaFX thread while the export runs, for example by streaming data, the points of each series in
+ * the visible range are copied into primitive arrays on the JavaFX thread when the export starts,
+ * and only the copies are read by the background thread. The copy takes time proportional to the
+ * number of visible points.
+ * <p>
+ * To export large data without that copy, call {@link #addSeries(String, SortedXYData)} with data
+ * that is safe to read from the background thread, such as a {@link DoubleXYData} that the
+ * application keeps alongside the chart and does not modify until the export finishes. The slice
+ * of such data is found by binary search on the JavaFX thread and read in place.
+ * <p>
+ * Two formats are supported:
+ * <ul>
+ *   <li>{@link Format#Csv}: a "series,x,y" header line followed by one line per point</li>
+ *   <li>{@link Format#Binary}: a columnar, big-endian format of the magic bytes "JFXD", an int
+ *       version (1) and an int series count, followed for each series by its name (an int byte
+ *       length and UTF-8 bytes), an int point count n, n X doubles and then n Y doubles</li>
+ * </ul>
+ * All methods must be called on the JavaFX thread.
+ *
+ * @author Jason Winnebeck
+ */
+public class ViewportDataExporter {
+	/**
+	 * File format of the export.
+	 */
+	public enum Format {
+		/**
+		 * Comma separated text, one point per line.
+		 */
+		Csv,
+		/**
+		 * Columnar binary, see {@link ViewportDataExporter}.
+		 */
+		Binary
+	}
+
+	/**
+	 * Receives the result of an export, on the JavaFX thread.
+	 */
+	public interface Listener {
+		/**
+		 * Called when the file has been completely written.
+		 *
+		 * @param points total number of points written
+		 */
+		void exportFinished( File file, long points );
+
+		/**
+		 * Called when the export failed. The file may be left partially written.
+		 */
+		void exportFailed( File file, Throwable error );
+	}
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int BINARY_VERSION = 1;
+
+	private final XYChart<?, ?> chart;
+	private final List<String> names = new ArrayList<String>();
+	private final List<SortedXYData> sources = new ArrayList<SortedXYData>();
+
+	/**
+	 * Creates an exporter for the chart, whose X axis must be supported by
+	 * {@link AxisBoundsAdapters}.
+	 */
+	public ViewportDataExporter( XYChart<?, ?> chart ) {
+		this.chart = chart;
+	}
+
+	/**
+	 * Adds data to export instead of the chart's series. The data is read in place from the
+	 * background thread, so it must not be modified, from any thread, until the export finishes.
+	 */
+	public void addSeries( String name, SortedXYData data ) {
+		names.add( name );
+		sources.add( data );
+	}
+
+	/**
+	 * Starts writing the points within the X axis range to a file.
+	 *
+	 * @param executor executor to write the file on, which is not shut down by this class
+	 * @param listener receives the result on the JavaFX thread
+	 *
+	 * @return the Future of the task, which can be cancelled
+	 */
+	public Future<?> export( File file, Format format, ExecutorService executor, Listener listener ) {
+		AxisBoundsAdapter bounds = AxisBoundsAdapters.forAxis( chart.getXAxis() );
+		if ( bounds == null )
+			throw new IllegalStateException( "X axis type not supported" );
+
+		double xMin = bounds.lowerBoundProperty().get();
+		double xMax = bounds.upperBoundProperty().get();
+
+		List<String> exportNames = new ArrayList<String>( names );
+		List<SortedXYData> exportSources = new ArrayList<SortedXYData>( sources );
+		boolean copied = exportSources.isEmpty();
+		if ( copied )
+			copyChartSeries( exportNames, exportSources, xMin, xMax );
+
+		int[] from = new int[exportSources.size()];
+		int[] to = new int[exportSources.size()];
+		for ( int i = 0; i < from.length; ++i ) {
+			SortedXYData data = exportSources.get( i );
+			if ( copied ) {
+				//The copies hold only the points in range, but possibly out of X order
+				to[i] = data.size();
+			} else {
+				from[i] = SortedXYDataUtil.lowerBound( data, xMin );
+				to[i] = Math.max( from[i], SortedXYDataUtil.upperBound( data, xMax ) );
+			}
+		}
+
+		return executor.submit( new ExportTask( file, format, listener, exportNames, exportSources, from, to ) );
+	}
+
+	/**
+	 * Copies the points of the chart's series within [xMin, xMax], in their order in the series.
+	 */
+	@SuppressWarnings( "unchecked" )
+	private void copyChartSeries( List<String> names, List<SortedXYData> sources, double xMin, double xMax ) {
+		XYChart<Object, Object> chart = (XYChart<Object, Object>) this.chart;
+		int index = 0;
+		for ( XYChart.Series<Object, Object> series : chart.getData() ) {
+			String name = series.getName();
+			names.add( name != null ? name : "Series " + index );
+
+			SortedXYData data = SortedXYDataUtil.forSeries( series, chart.getXAxis(), chart.getYAxis() );
+			int from = 0;
+			int to = data.size();
+			if ( SortedXYDataUtil.isSorted( data ) ) {
+				from = SortedXYDataUtil.lowerBound( data, xMin );
+				to = Math.max( from, SortedXYDataUtil.upperBound( data, xMax ) );
+			}
+			ArrayXYData copy = new ArrayXYData( to - from );
+			for ( int i = from; i < to; ++i ) {
+				double x = data.getX( i );
+				if ( x >= xMin && x <= xMax )
+					copy.add( x, data.getY( i ) );
+			}
+			sources.add( copy );
+			++index;
+		}
+	}
+
+	/**
+	 * Points copied from a chart series. The X values keep the order of the series, which may not be
+	 * sorted, so the copy is always exported in full rather than binary searched.
+	 */
+	private static class ArrayXYData implements SortedXYData {
+		private final double[] xs;
+		private final double[] ys;
+		private int size = 0;
+
+		private ArrayXYData( int capacity ) {
+			xs = new double[capacity];
+			ys = new double[capacity];
+		}
+
+		private void add( double x, double y ) {
+			xs[size] = x;
+			ys[size] = y;
+			++size;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public double getX( int index ) {
+			return xs[index];
+		}
+
+		@Override
+		public double getY( int index ) {
+			return ys[index];
+		}
+	}
+
+	private static class ExportTask implements Runnable {
+		private final File file;
+		private final Format format;
+		private final Listener listener;
+		private final List<String> names;
+		private final List<SortedXYData> sources;
+		private final int[] from;
+		private final int[] to;
+
+		private ExportTask( File file, Format format, Listener listener, List<String> names,
+		                    List<SortedXYData> sources, int[] from, int[] to ) {
+			this.file = file;
+			this.format = format;
+			this.listener = listener;
+			this.names = names;
+			this.sources = sources;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public void run() {
+			long points = 0;
+			try {
+				FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				                                        StandardOpenOption.TRUNCATE_EXISTING );
+				try {
+					points = new DataWriter( channel ).write( format, names, sources, from, to );
+				} finally {
+					channel.close();
+				}
+			} catch ( IOException | RuntimeException e ) {
+				if ( !Thread.currentThread().isInterrupted() )
+					finish( e, points );
+				return;
+			}
+			finish( null, points );
+		}
+
+		private void finish( final Throwable error, final long points ) {
+			Platform.runLater( new Runnable() {
+				@Override
+				public void run() {
+					if ( error == null )
+						listener.exportFinished( file, points );
+					else
+						listener.exportFailed( file, error );
+				}
+			} );
+		}
+	}
+
+	/**
+	 * Encodes the points of the export formats into a buffer that is written to a channel. This
+	 * does not depend on the JavaFX thread.
+	 */
+	static class DataWriter {
+		private final WritableByteChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect( BUFFER_SIZE ).order( ByteOrder.BIG_ENDIAN );
+		private final StringBuilder text = new StringBuilder( 64 );
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput( CodingErrorAction.REPLACE )
+				.onUnmappableCharacter( CodingErrorAction.REPLACE );
+
+		DataWriter( WritableByteChannel channel ) {
+			this.channel = channel;
+		}
+
+		/**
+		 * Writes the points from[s] until to[s] of each source and flushes the buffer.
+		 *
+		 * @return the number of points written
+		 */
+		long write( Format format, List<String> names, List<SortedXYData> sources, int[] from, int[] to )
+				throws IOException {
+			long points;
+			if ( format == Format.Csv )
+				points = writeCsv( names, sources, from, to );
+			else
+				points = writeBinary( names, sources, from, to );
+			flush();
+			return points;
+		}
+
+		private long writeCsv( List<String> names, List<SortedXYData> sources, int[] from, int[] to )
+				throws IOException {
+			putText( "series,x,y\n" );
+			long points = 0;
+			for ( int s = 0; s < sources.size(); ++s ) {
+				SortedXYData data = sources.get( s );
+				String name = escapeCsv( names.get( s ) );
+				for ( int i = from[s]; i < to[s]; ++i ) {
+					checkInterrupted();
+					text.setLength( 0 );
+					text.append( name ).append( ',' ).append( data.getX( i ) ).append( ',' ).append( data.getY( i ) )
+					    .append( '\n' );
+					putText( text );
+				}
+				points += to[s] - from[s];
+			}
+			return points;
+		}
+
+		private long writeBinary( List<String> names, List<SortedXYData> sources, int[] from, int[] to )
+				throws IOException {
+			ensure( 12 );
+			buffer.put( new byte[] { 'J', 'F', 'X', 'D' } );
+			buffer.putInt( BINARY_VERSION );
+			buffer.putInt( sources.size() );
+
+			long points = 0;
+			for ( int s = 0; s < sources.size(); ++s ) {
+				SortedXYData data = sources.get( s );
+				byte[] name = names.get( s ).getBytes( StandardCharsets.UTF_8 );
+				ensure( 4 );
+				buffer.putInt( name.length );
+				for ( byte b : name ) {
+					ensure( 1 );
+					buffer.put( b );
+				}
+				ensure( 4 );
+				buffer.putInt( to[s] - from[s] );
+
+				for ( int i = from[s]; i < to[s]; ++i ) {
+					ensure( 8 );
+					buffer.putDouble( data.getX( i ) );
+				}
+				checkInterrupted();
+				for ( int i = from[s]; i < to[s]; ++i ) {
+					ensure( 8 );
+					buffer.putDouble( data.getY( i ) );
+				}
+				checkInterrupted();
+				points += to[s] - from[s];
+			}
+			return points;
+		}
+
+		/**
+		 * Writes the characters as UTF-8. ASCII text, which is all the numbers, is copied directly, and
+		 * anything else goes through the encoder so that surrogate pairs are encoded together.
+		 */
+		private void putText( CharSequence chars ) throws IOException {
+			int length = chars.length();
+			if ( buffer.remaining() < length )
+				flush();
+			if ( buffer.remaining() >= length ) {
+				int start = buffer.position();
+				int i = 0;
+				while ( i < length && chars.charAt( i ) < 0x80 ) {
+					buffer.put( (byte) chars.charAt( i ) );
+					++i;
+				}
+				if ( i == length )
+					return;
+				buffer.position( start );
+			}
+
+			CharBuffer in = CharBuffer.wrap( chars );
+			encoder.reset();
+			CoderResult result;
+			do {
+				result = encoder.encode( in, buffer, true );
+				if ( result.isOverflow() )
+					flush();
+			} while ( result.isOverflow() );
+			while ( encoder.flush( buffer ).isOverflow() ) {
+				flush();
+			}
+		}
+
+		/**
+		 * Makes room for at least the given number of bytes, which must not exceed the buffer size.
+		 */
+		private void ensure( int bytes ) throws IOException {
+			if ( buffer.remaining() < bytes )
+				flush();
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			while ( buffer.hasRemaining() ) {
+				channel.write( buffer );
+			}
+			buffer.clear();
+		}
+
+		private static void checkInterrupted() throws IOException {
+			if ( Thread.currentThread().isInterrupted() )
+				throw new IOException( "Export cancelled" );
+		}
+
+		private static String escapeCsv( String value ) {
+			if ( value.indexOf( ',' ) < 0 && value.indexOf( '"' ) < 0 && value.indexOf( '\n' ) < 0 )
+				return value;
+			return '"' + value.replace( "\"", "\"\"" ) + '"';
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.geometry.Rectangle2D;
+
+/**
+ * ViewportEvent is sent by the {@link ChartZoomManager} and {@link ChartPanManager} as a gesture
+ * changes the bounds of a chart's axes. Each gesture sends one {@link #GESTURE_STARTED} event, a
+ * number of {@link #VIEWPORT_CHANGING} events limited to a configurable rate, and one
+ * {@link #VIEWPORT_SETTLED} event once the bounds have reached their final value, for example at
+ * the end of the zoom animation or when the mouse is released after panning.
+ * <p>
+ * Consumers doing expensive work such as querying data for the new range should react only to
+ * {@link #VIEWPORT_SETTLED}.
+ *
+ * @author Jason Winnebeck
+ */
+public class ViewportEvent extends Event {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Common supertype of all viewport event types.
+	 */
+	public static final EventType<ViewportEvent> ANY =
+			new EventType<ViewportEvent>( Event.ANY, "VIEWPORT" );
+
+	/**
+	 * Sent when a gesture starts to change the viewport, before any bounds have changed.
+	 */
+	public static final EventType<ViewportEvent> GESTURE_STARTED =
+			new EventType<ViewportEvent>( ANY, "VIEWPORT_GESTURE_STARTED" );
+
+	/**
+	 * Sent while the viewport is changing, at most once per change interval of the sender.
+	 */
+	public static final EventType<ViewportEvent> VIEWPORT_CHANGING =
+			new EventType<ViewportEvent>( ANY, "VIEWPORT_CHANGING" );
+
+	/**
+	 * Sent once when the gesture has ended and the viewport has its final value.
+	 */
+	public static final EventType<ViewportEvent> VIEWPORT_SETTLED =
+			new EventType<ViewportEvent>( ANY, "VIEWPORT_SETTLED" );
+
+	private final transient Rectangle2D viewport;
+
+	/**
+	 * Constructs a new event.
+	 *
+	 * @param source    the manager sending the event
+	 * @param eventType type of the event
+	 * @param viewport  axis bounds in data coordinates, see {@link #getViewport()}
+	 */
+	public ViewportEvent( Object source, EventType<ViewportEvent> eventType, Rectangle2D viewport ) {
+		super( source, null, eventType );
+		this.viewport = viewport;
+	}
+
+	/**
+	 * Returns the bounds of both axes in data coordinates. minX and maxX are the X axis lower and
+	 * upper bounds, and minY and maxY are the Y axis lower and upper bounds.
+	 */
+	public Rectangle2D getViewport() {
+		return viewport;
+	}
+
+	public double getXLowerBound() {
+		return viewport.getMinX();
+	}
+
+	public double getXUpperBound() {
+		return viewport.getMaxX();
+	}
+
+	public double getYLowerBound() {
+		return viewport.getMinY();
+	}
+
+	public double getYUpperBound() {
+		return viewport.getMaxY();
+	}
+
+	@SuppressWarnings( "unchecked" )
+	@Override
+	public EventType<ViewportEvent> getEventType() {
+		return (EventType<ViewportEvent>) super.getEventType();
+	}
+
+	@Override
+	public String toString() {
+		return "ViewportEvent{" +
+		       "eventType=" + getEventType() +
+		       ", viewport=" + viewport +
+		       '}';
+	}
+}
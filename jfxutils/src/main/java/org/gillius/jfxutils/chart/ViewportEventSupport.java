@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.geometry.Rectangle2D;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the gesture state of a zoom or pan manager and sends {@link ViewportEvent}s to the
+ * registered handlers, throttling the {@link ViewportEvent#VIEWPORT_CHANGING} events. All methods
+ * must be called on the JavaFX thread.
+ *
+ * @author Jason Winnebeck
+ */
+abstract class ViewportEventSupport {
+	private final Object source;
+
+	private final List<EventHandler<? super ViewportEvent>> handlers =
+			new ArrayList<EventHandler<? super ViewportEvent>>();
+
+	private final DoubleProperty changeIntervalMillis = new SimpleDoubleProperty( 100.0 );
+	private final DoubleProperty settleDelayMillis = new SimpleDoubleProperty( 250.0 );
+
+	private final PauseTransition settleTimer = new PauseTransition();
+
+	private boolean inGesture = false;
+	private long lastChangingNanos;
+
+	ViewportEventSupport( Object source ) {
+		this.source = source;
+		settleTimer.setOnFinished( new EventHandler<ActionEvent>() {
+			@Override
+			public void handle( ActionEvent event ) {
+				settled();
+			}
+		} );
+	}
+
+	/**
+	 * Returns the current bounds of the axes, as described by {@link ViewportEvent#getViewport()}.
+	 */
+	protected abstract Rectangle2D getViewport();
+
+	public void addHandler( EventHandler<? super ViewportEvent> handler ) {
+		handlers.add( handler );
+	}
+
+	public void removeHandler( EventHandler<? super ViewportEvent> handler ) {
+		handlers.remove( handler );
+	}
+
+	/**
+	 * Minimum number of milliseconds between {@link ViewportEvent#VIEWPORT_CHANGING} events.
+	 */
+	public DoubleProperty changeIntervalMillisProperty() {
+		return changeIntervalMillis;
+	}
+
+	/**
+	 * Number of milliseconds without change before {@link #settleLater()} settles the gesture.
+	 */
+	public DoubleProperty settleDelayMillisProperty() {
+		return settleDelayMillis;
+	}
+
+	/**
+	 * Returns true between the start of a gesture and when it settles.
+	 */
+	public boolean isInGesture() {
+		return inGesture;
+	}
+
+	/**
+	 * Starts a gesture, unless one is already in progress.
+	 */
+	public void gestureStarted() {
+		settleTimer.stop();
+		if ( inGesture )
+			return;
+
+		inGesture = true;
+		lastChangingNanos = System.nanoTime();
+		fire( ViewportEvent.GESTURE_STARTED );
+	}
+
+	/**
+	 * Notes that the viewport changed during the gesture, sending an event if the change interval
+	 * has elapsed since the last one.
+	 */
+	public void changing() {
+		if ( !inGesture )
+			gestureStarted();
+
+		long now = System.nanoTime();
+		if ( now - lastChangingNanos >= (long) ( changeIntervalMillis.get() * 1000000.0 ) ) {
+			lastChangingNanos = now;
+			fire( ViewportEvent.VIEWPORT_CHANGING );
+		}
+	}
+
+	/**
+	 * Ends the gesture in progress, if any, with a settled event.
+	 */
+	public void settled() {
+		settleTimer.stop();
+		if ( !inGesture )
+			return;
+
+		inGesture = false;
+		fire( ViewportEvent.VIEWPORT_SETTLED );
+	}
+
+	/**
+	 * Settles the gesture once no change has been made for the settle delay. This is for gestures
+	 * like the mouse wheel that have no explicit end.
+	 */
+	public void settleLater() {
+		settleTimer.setDuration( Duration.millis( settleDelayMillis.get() ) );
+		settleTimer.playFromStart();
+	}
+
+	private void fire( EventType<ViewportEvent> type ) {
+		if ( handlers.isEmpty() )
+			return;
+
+		ViewportEvent event = new ViewportEvent( source, type, getViewport() );
+		//Copy so that handlers can remove themselves
+		for ( Object handler : handlers.toArray() ) {
+			@SuppressWarnings( "unchecked" )
+			EventHandler<? super ViewportEvent> h = (EventHandler<? super ViewportEvent>) handler;
+			h.handle( event );
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.geometry.Rectangle2D;
+
+/**
+ * ViewportLimits constrains the viewports the {@link ChartZoomManager} and {@link ChartPanManager}
+ * can move to, when set on them with their setViewportLimits methods. The limits are applied to the
+ * bounds computed for each zoom or pan step before they are set on the axes, so the chart is never
+ * laid out at a viewport outside of them.
+ * <ul>
+ *   <li>The span (upper minus lower bound) of each axis is kept between a minimum and a maximum,
+ *       growing or shrinking the viewport around its center.</li>
+ *   <li>If a {@link DataExtentIndex} is set, the viewport is then shifted, keeping its span, so that
+ *       it stays within the extent of the data widened on each side by the margin. A viewport wider
+ *       than that is centered on the data.</li>
+ * </ul>
+ *
+ * @author Jason Winnebeck
+ */
+public class ViewportLimits {
+	private DataExtentIndex extentIndex;
+	private double margin = 0.05;
+	private double minXSpan = 0.0;
+	private double maxXSpan = Double.POSITIVE_INFINITY;
+	private double minYSpan = 0.0;
+	private double maxYSpan = Double.POSITIVE_INFINITY;
+
+	/**
+	 * Constructs limits with no data extent, so only the spans are limited.
+	 */
+	public ViewportLimits() {
+	}
+
+	/**
+	 * Constructs limits keeping the viewport within the extent of the data in the index.
+	 */
+	public ViewportLimits( DataExtentIndex extentIndex ) {
+		this.extentIndex = extentIndex;
+	}
+
+	public DataExtentIndex getExtentIndex() {
+		return extentIndex;
+	}
+
+	/**
+	 * Sets the index providing the extent of the data, or null to not limit the viewport to the data.
+	 */
+	public void setExtentIndex( DataExtentIndex extentIndex ) {
+		this.extentIndex = extentIndex;
+	}
+
+	public double getMargin() {
+		return margin;
+	}
+
+	/**
+	 * Sets how far past the data the viewport may go, as a fraction of the span of the data on that
+	 * axis. The default is 0.05.
+	 */
+	public void setMargin( double margin ) {
+		this.margin = margin;
+	}
+
+	public double getMinXSpan() {
+		return minXSpan;
+	}
+
+	public double getMaxXSpan() {
+		return maxXSpan;
+	}
+
+	/**
+	 * Sets the minimum and maximum span of the X axis. The defaults are 0 and infinity.
+	 */
+	public void setXSpan( double minSpan, double maxSpan ) {
+		if ( minSpan > maxSpan )
+			throw new IllegalArgumentException( "minSpan must not be greater than maxSpan" );
+		minXSpan = minSpan;
+		maxXSpan = maxSpan;
+	}
+
+	public double getMinYSpan() {
+		return minYSpan;
+	}
+
+	public double getMaxYSpan() {
+		return maxYSpan;
+	}
+
+	/**
+	 * Sets the minimum and maximum span of the Y axis. The defaults are 0 and infinity.
+	 */
+	public void setYSpan( double minSpan, double maxSpan ) {
+		if ( minSpan > maxSpan )
+			throw new IllegalArgumentException( "minSpan must not be greater than maxSpan" );
+		minYSpan = minSpan;
+		maxYSpan = maxSpan;
+	}
+
+	/**
+	 * Returns the given viewport with the limits applied, where minX/maxX are the X axis lower and
+	 * upper bounds and minY/maxY are the Y axis lower and upper bounds.
+	 */
+	public Rectangle2D limit( double xLower, double xUpper, double yLower, double yUpper ) {
+		double[] x = { xLower, xUpper };
+		double[] y = { yLower, yUpper };
+		Rectangle2D extents = extentIndex != null ? extentIndex.getExtents() : null;
+
+		limitSpan( x, minXSpan, maxXSpan );
+		if ( extents != null )
+			limitToExtent( x, extents.getMinX(), extents.getMaxX(), margin );
+
+		limitSpan( y, minYSpan, maxYSpan );
+		if ( extents != null )
+			limitToExtent( y, extents.getMinY(), extents.getMaxY(), margin );
+
+		return new Rectangle2D( x[0], y[0], x[1] - x[0], y[1] - y[0] );
+	}
+
+	/**
+	 * Grows or shrinks the bounds around their center so that their span is within the limits.
+	 */
+	static void limitSpan( double[] bounds, double minSpan, double maxSpan ) {
+		double span = bounds[1] - bounds[0];
+		double newSpan = Math.max( minSpan, Math.min( maxSpan, span ) );
+		//noinspection FloatingPointEquality
+		if ( newSpan != span ) {
+			double center = ( bounds[0] + bounds[1] ) / 2.0;
+			bounds[0] = center - newSpan / 2.0;
+			bounds[1] = center + newSpan / 2.0;
+		}
+	}
+
+	/**
+	 * Shifts the bounds, keeping their span, to be within the data extent widened by the margin, or
+	 * centers them on the data if they are wider.
+	 */
+	static void limitToExtent( double[] bounds, double dataMin, double dataMax, double margin ) {
+		double extra = ( dataMax - dataMin ) * margin;
+		double min = dataMin - extra;
+		double max = dataMax + extra;
+		double span = bounds[1] - bounds[0];
+
+		double shift;
+		if ( span >= max - min )
+			shift = ( min + max ) / 2.0 - ( bounds[0] + bounds[1] ) / 2.0;
+		else if ( bounds[0] < min )
+			shift = min - bounds[0];
+		else if ( bounds[1] > max )
+			shift = max - bounds[1];
+		else
+			return;
+
+		bounds[0] += shift;
+		bounds[1] += shift;
+	}
+}
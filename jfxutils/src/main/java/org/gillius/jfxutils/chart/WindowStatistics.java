@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+/**
+ * Summary statistics of the Y values of a window of points, as computed by a
+ * {@link PrefixSumIndex}.
+ *
+ * @author Jason Winnebeck
+ */
+public class WindowStatistics {
+	private final int count;
+	private final double sum;
+	private final double sumOfSquares;
+
+	public WindowStatistics( int count, double sum, double sumOfSquares ) {
+		this.count = count;
+		this.sum = sum;
+		this.sumOfSquares = sumOfSquares;
+	}
+
+	/**
+	 * Returns the number of points in the window with a finite Y, which are the points included in
+	 * the other statistics.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the sum of Y.
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * Returns the sum of Y<sup>2</sup>.
+	 */
+	public double getSumOfSquares() {
+		return sumOfSquares;
+	}
+
+	/**
+	 * Returns the mean of Y, or NaN if the window is empty.
+	 */
+	public double getMean() {
+		return count == 0 ? Double.NaN : sum / count;
+	}
+
+	/**
+	 * Returns the root mean square of Y, or NaN if the window is empty.
+	 */
+	public double getRms() {
+		return count == 0 ? Double.NaN : Math.sqrt( Math.max( 0.0, sumOfSquares / count ) );
+	}
+
+	@Override
+	public String toString() {
+		return "WindowStatistics{" +
+		       "count=" + count +
+		       ", sum=" + sum +
+		       ", mean=" + getMean() +
+		       ", rms=" + getRms() +
+		       '}';
+	}
+}
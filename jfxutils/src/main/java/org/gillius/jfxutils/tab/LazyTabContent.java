@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.tab;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.Tab;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+
+import java.util.function.Supplier;
+
+/**
+ * LazyTabContent builds the content of a {@link Tab} from a supplier the first time the tab is
+ * selected, and takes the content out of the scene graph while the tab is not selected, so that
+ * CSS, layout and rendering work scale with the visible tabs rather than the open ones. Create it
+ * with {@link TabUtil#makeLazy(Tab, Supplier)}.
+ * <p>
+ * When the tab is deselected, its content is replaced with an {@link ImageView} of a snapshot of
+ * it, if {@link #snapshotPlaceholderProperty() snapshotPlaceholder} is true, or with nothing
+ * otherwise. The snapshot keeps the tab looking the same, for example while it is dragged between
+ * TabPanes, at the cost of the image's memory.
+ * <p>
+ * The {@link #activeProperty() active} property is true while the real content is shown. Content
+ * that receives live data, such as charts, should pause on it, for example with
+ * {@link org.gillius.jfxutils.chart.BufferedSeriesAppender}, which buffers the data while inactive
+ * and applies it in one batch when the tab is selected again.
+ *
+ * @author Jason Winnebeck
+ */
+public class LazyTabContent {
+	private final Tab tab;
+	private final Supplier<? extends Node> contentFactory;
+
+	private final ReadOnlyBooleanWrapper active = new ReadOnlyBooleanWrapper( this, "active", false );
+	private final BooleanProperty snapshotPlaceholder = new SimpleBooleanProperty( this, "snapshotPlaceholder", true );
+
+	private Node content;
+
+	private final ChangeListener<Boolean> selectedListener = new ChangeListener<Boolean>() {
+		@Override
+		public void changed( ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue ) {
+			if ( newValue )
+				activate();
+			else
+				deactivate();
+		}
+	};
+
+	LazyTabContent( Tab tab, Supplier<? extends Node> contentFactory ) {
+		this.tab = tab;
+		this.contentFactory = contentFactory;
+		tab.selectedProperty().addListener( selectedListener );
+		if ( tab.isSelected() )
+			activate();
+	}
+
+	public Tab getTab() {
+		return tab;
+	}
+
+	/**
+	 * Returns the content if it has been built, or null if the tab has never been selected.
+	 */
+	public Node getContent() {
+		return content;
+	}
+
+	public boolean isActive() {
+		return active.get();
+	}
+
+	/**
+	 * True while the tab is selected and its real content is in the scene graph.
+	 */
+	public ReadOnlyBooleanProperty activeProperty() {
+		return active.getReadOnlyProperty();
+	}
+
+	public boolean isSnapshotPlaceholder() {
+		return snapshotPlaceholder.get();
+	}
+
+	/**
+	 * If true (the default), a deselected tab shows a snapshot image of its content instead of
+	 * nothing.
+	 */
+	public BooleanProperty snapshotPlaceholderProperty() {
+		return snapshotPlaceholder;
+	}
+
+	public void setSnapshotPlaceholder( boolean snapshotPlaceholder ) {
+		this.snapshotPlaceholder.set( snapshotPlaceholder );
+	}
+
+	/**
+	 * Stops managing the tab's content. The tab is left with its real content, which is built if
+	 * needed.
+	 */
+	public void dispose() {
+		tab.selectedProperty().removeListener( selectedListener );
+		activate();
+	}
+
+	private void activate() {
+		if ( content == null )
+			content = contentFactory.get();
+		tab.setContent( content );
+		active.set( true );
+	}
+
+	private void deactivate() {
+		if ( content == null )
+			return;
+
+		active.set( false );
+		Node placeholder = null;
+		if ( snapshotPlaceholder.get() && content.getScene() != null &&
+		     content.getLayoutBounds().getWidth() > 0.0 && content.getLayoutBounds().getHeight() > 0.0 ) {
+			WritableImage image = content.snapshot( null, null );
+			placeholder = new ImageView( image );
+		}
+		tab.setContent( placeholder );
+	}
+}
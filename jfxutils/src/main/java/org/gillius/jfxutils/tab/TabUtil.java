@@ -17,12 +17,14 @@
 package org.gillius.jfxutils.tab;
 
 import javafx.event.EventHandler;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.scene.input.*;
 
 import java.lang.ref.WeakReference;
+import java.util.function.Supplier;
 
 /**
  * Utility methods for working with JavaFX Tabs.
@@ -46,6 +48,22 @@ public class TabUtil {
 		return rr;
 	}
 
+	/**
+	 * Helper method to create a new draggable tab with {@link #newDraggableTab(String)} whose content
+	 * is built lazily with {@link #makeLazy(Tab, Supplier)}.
+	 */
+	public static LazyTabContent newLazyDraggableTab( String label, Supplier<? extends Node> contentFactory ) {
+		return makeLazy( newDraggableTab( label ), contentFactory );
+	}
+
+	/**
+	 * Makes the tab's content lazy: it is built from contentFactory on the first selection of the tab,
+	 * and taken out of the scene graph while the tab is not selected. See {@link LazyTabContent}.
+	 */
+	public static LazyTabContent makeLazy( Tab tab, Supplier<? extends Node> contentFactory ) {
+		return new LazyTabContent( tab, contentFactory );
+	}
+
 	/**
 	 * global for drag-n-drop of non-serializable type
 	 */
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils;
+
+import org.junit.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestStreamingPngWriter
+ *
+ * @author Jason Winnebeck
+ */
+public class TestStreamingPngWriter {
+	@Test
+	public void testRoundTrip() throws Exception {
+		int width = 37;
+		int height = 211;
+		int[] pixels = new int[width * height];
+		Random random = new Random( 42 );
+		for ( int i = 0; i < pixels.length; ++i ) {
+			pixels[i] = random.nextInt();
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		StreamingPngWriter writer = new StreamingPngWriter( bytes, width, height );
+		//Write in uneven bands, as an exporter would
+		writer.writeRows( pixels, 0, width, 100 );
+		writer.writeRows( pixels, 100 * width, width, 1 );
+		writer.writeRows( pixels, 101 * width, width, 110 );
+		writer.close();
+
+		BufferedImage image = ImageIO.read( new ByteArrayInputStream( bytes.toByteArray() ) );
+		assertEquals( width, image.getWidth() );
+		assertEquals( height, image.getHeight() );
+		for ( int y = 0; y < height; ++y ) {
+			for ( int x = 0; x < width; ++x ) {
+				assertEquals( pixels[y * width + x], image.getRGB( x, y ) );
+			}
+		}
+	}
+
+	@Test
+	public void testLargeCompressible() throws Exception {
+		//Enough data to need many IDAT chunks
+		int width = 2000;
+		int height = 600;
+		int[] band = new int[width * 10];
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		StreamingPngWriter writer = new StreamingPngWriter( bytes, width, height, 1 );
+		for ( int y = 0; y < height; y += 10 ) {
+			for ( int i = 0; i < band.length; ++i ) {
+				band[i] = 0xFF000000 | ( i * 31 + y );
+			}
+			writer.writeRows( band, 0, width, 10 );
+		}
+		writer.close();
+
+		BufferedImage image = ImageIO.read( new ByteArrayInputStream( bytes.toByteArray() ) );
+		assertEquals( 0xFF000000 | ( ( 5 * width + 7 ) * 31 + 590 ), image.getRGB( 7, 595 ) );
+	}
+
+	@Test( expected = IllegalStateException.class )
+	public void testIncomplete() throws Exception {
+		StreamingPngWriter writer = new StreamingPngWriter( new ByteArrayOutputStream(), 2, 2 );
+		writer.writeRows( new int[4], 0, 2, 1 );
+		writer.close();
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.ListChangeListener;
+import javafx.scene.chart.XYChart;
+import org.junit.*;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestBufferedSeriesAppender
+ *
+ * @author Jason Winnebeck
+ */
+public class TestBufferedSeriesAppender {
+	@Test
+	public void testBuffersWhileInactive() {
+		SimpleBooleanProperty active = new SimpleBooleanProperty( true );
+		XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+		BufferedSeriesAppender<Number, Number> appender =
+				new BufferedSeriesAppender<Number, Number>( series, active );
+
+		appender.append( 1, 1 );
+		assertEquals( 1, series.getData().size() );
+
+		active.set( false );
+		appender.append( 2, 2 );
+		appender.append( 3, 3 );
+		assertEquals( 1, series.getData().size() );
+		assertEquals( 2, appender.getBufferedCount() );
+
+		final int[] changes = { 0 };
+		series.getData().addListener( new ListChangeListener<XYChart.Data<Number, Number>>() {
+			@Override
+			public void onChanged( Change<? extends XYChart.Data<Number, Number>> c ) {
+				++changes[0];
+			}
+		} );
+
+		active.set( true );
+		assertEquals( 1, changes[0] );
+		assertEquals( 3, series.getData().size() );
+		assertEquals( 0, appender.getBufferedCount() );
+		assertEquals( 3, series.getData().get( 2 ).getXValue() );
+	}
+
+	@Test
+	public void testMaxBufferedCount() {
+		SimpleBooleanProperty active = new SimpleBooleanProperty( false );
+		XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+		BufferedSeriesAppender<Number, Number> appender =
+				new BufferedSeriesAppender<Number, Number>( series, active );
+		appender.setMaxBufferedCount( 3 );
+
+		for ( int i = 0; i < 5; ++i ) {
+			appender.append( i, i );
+		}
+		assertEquals( 3, appender.getBufferedCount() );
+
+		appender.appendAll( Arrays.asList( new XYChart.Data<Number, Number>( 5, 5 ),
+		                                   new XYChart.Data<Number, Number>( 6, 6 ) ) );
+		assertEquals( 3, appender.getBufferedCount() );
+
+		appender.setMaxBufferedCount( 2 );
+		assertEquals( 2, appender.getBufferedCount() );
+
+		active.set( true );
+		assertEquals( 2, series.getData().size() );
+		assertEquals( 5, series.getData().get( 0 ).getXValue() );
+		assertEquals( 6, series.getData().get( 1 ).getXValue() );
+	}
+
+	@Test( expected = IllegalArgumentException.class )
+	public void testNegativeMaxBufferedCount() {
+		BufferedSeriesAppender<Number, Number> appender = new BufferedSeriesAppender<Number, Number>(
+				new XYChart.Series<Number, Number>(), new SimpleBooleanProperty( false ) );
+		appender.setMaxBufferedCount( -1 );
+	}
+}
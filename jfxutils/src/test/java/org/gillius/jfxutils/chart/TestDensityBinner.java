@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import org.junit.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestDensityBinner
+ *
+ * @author Jason Winnebeck
+ */
+public class TestDensityBinner {
+	@Test
+	public void testBinsMatchSequential() {
+		int n = 500000;
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+		Random random = new Random( 7 );
+		for ( int i = 0; i < n; ++i ) {
+			xs[i] = random.nextGaussian();
+			ys[i] = random.nextGaussian();
+		}
+		xs[3] = Double.NaN;
+
+		int columns = 17;
+		int rows = 9;
+		int[] expected = new int[columns * rows];
+		for ( int i = 10; i < n - 10; ++i ) {
+			int column = (int) Math.floor( ( xs[i] + 2.0 ) / 4.0 * columns );
+			int row = (int) Math.floor( ( 1.5 - ys[i] ) / 3.0 * rows );
+			if ( column >= 0 && column < columns && row >= 0 && row < rows )
+				++expected[row * columns + column];
+		}
+
+		ForkJoinPool pool = new ForkJoinPool( 4 );
+		try {
+			int[] counts = DensityBinner.bin( pool, xs, ys, 10, n - 10, -2.0, 2.0, -1.5, 1.5, columns, rows );
+			assertArrayEquals( expected, counts );
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testEmptyRange() {
+		int[] counts = DensityBinner.bin( ForkJoinPool.commonPool(), new double[] { 1.0 }, new double[] { 1.0 },
+		                                  0, 0, 0.0, 2.0, 0.0, 2.0, 2, 2 );
+		assertArrayEquals( new int[4], counts );
+	}
+}
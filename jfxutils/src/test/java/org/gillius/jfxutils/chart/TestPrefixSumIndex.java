@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestPrefixSumIndex
+ *
+ * @author Jason Winnebeck
+ */
+public class TestPrefixSumIndex {
+	@Test
+	public void testStatistics() {
+		DoubleXYData data = new DoubleXYData();
+		for ( int i = 0; i < 10; ++i ) {
+			data.add( i, i );
+		}
+		PrefixSumIndex index = new PrefixSumIndex( data );
+
+		WindowStatistics stats = index.getStatistics( 2, 5 );
+		assertEquals( 3, stats.getCount() );
+		assertEquals( 9.0, stats.getSum(), 0.0 );
+		assertEquals( 3.0, stats.getMean(), 1e-12 );
+		assertEquals( Math.sqrt( 29.0 / 3.0 ), stats.getRms(), 1e-12 );
+
+		stats = index.getStatistics( 2.5, 7.0 );
+		assertEquals( 5, stats.getCount() );
+		assertEquals( 3.0 + 4.0 + 5.0 + 6.0 + 7.0, stats.getSum(), 0.0 );
+	}
+
+	@Test
+	public void testIncrementalUpdate() {
+		DoubleXYData data = new DoubleXYData( 1 );
+		PrefixSumIndex index = new PrefixSumIndex( data );
+		assertEquals( 0, index.getStatistics( 0.0, 100.0 ).getCount() );
+		assertTrue( Double.isNaN( index.getStatistics( 0.0, 100.0 ).getMean() ) );
+
+		for ( int i = 0; i < 100; ++i ) {
+			data.add( i, 2.0 );
+			index.update();
+		}
+		assertEquals( 100, index.size() );
+		assertEquals( 200.0, index.getStatistics( 0, 100 ).getSum(), 0.0 );
+		assertEquals( 2.0, index.getStatistics( 10.0, 20.0 ).getRms(), 1e-12 );
+
+		//Points added but not yet indexed are not counted
+		data.add( 100, 2.0 );
+		assertEquals( 100, index.getStatistics( 0.0, 1000.0 ).getCount() );
+
+		data.clear();
+		data.add( 0, 1.0 );
+		index.update();
+		assertEquals( 1, index.size() );
+		assertEquals( 1.0, index.getStatistics( 0, 1 ).getSum(), 0.0 );
+	}
+
+	@Test
+	public void testGapsAndRefill() {
+		DoubleXYData data = new DoubleXYData();
+		data.add( 0, 1.0 );
+		data.add( 1, Double.NaN );
+		data.add( 2, 3.0 );
+		PrefixSumIndex index = new PrefixSumIndex( data );
+
+		WindowStatistics stats = index.getStatistics( 0, 3 );
+		assertEquals( 2, stats.getCount() );
+		assertEquals( 4.0, stats.getSum(), 0.0 );
+		assertEquals( 3.0, index.getStatistics( 2, 3 ).getMean(), 0.0 );
+
+		//Cleared and refilled to a larger size between updates
+		data.clear();
+		for ( int i = 0; i < 4; ++i ) {
+			data.add( i, 10.0 );
+		}
+		index.update();
+		assertEquals( 4, index.getStatistics( 0, 4 ).getCount() );
+		assertEquals( 40.0, index.getStatistics( 0, 4 ).getSum(), 0.0 );
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.chart.XYChart;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestSampleQueue
+ *
+ * @author Jason Winnebeck
+ */
+public class TestSampleQueue {
+	@Test
+	public void testDropWhenFull() {
+		SampleQueue queue = new SampleQueue( 3 );
+		assertEquals( 4, queue.getCapacity() );
+
+		for ( int i = 0; i < 6; ++i ) {
+			queue.offer( 1, i, -i );
+		}
+		assertEquals( 2, queue.getDroppedCount() );
+		assertEquals( 4, queue.size() );
+
+		final double[] last = { -1 };
+		int count = queue.drain( new SampleQueue.Handler() {
+			@Override
+			public void sample( int seriesId, double x, double y ) {
+				assertEquals( 1, seriesId );
+				assertEquals( last[0] + 1, x, 0.0 );
+				assertEquals( -x, y, 0.0 );
+				last[0] = x;
+			}
+		}, 10 );
+		assertEquals( 4, count );
+		assertEquals( 0, queue.size() );
+		assertTrue( queue.offer( 1, 4, -4 ) );
+	}
+
+	@Test( timeout = 30000 )
+	public void testMultipleProducers() throws InterruptedException {
+		final int producers = 4;
+		final int samples = 100000;
+		final SampleQueue queue = new SampleQueue( 1024, SampleQueue.OverflowPolicy.Wait );
+
+		Thread[] threads = new Thread[producers];
+		for ( int p = 0; p < producers; ++p ) {
+			final int id = p;
+			threads[p] = new Thread( new Runnable() {
+				@Override
+				public void run() {
+					for ( int i = 0; i < samples; ++i ) {
+						queue.offer( id, i, id );
+					}
+				}
+			} );
+			threads[p].start();
+		}
+
+		//Each producer's samples must arrive complete and in order
+		final double[] next = new double[producers];
+		SampleQueue.Handler handler = new SampleQueue.Handler() {
+			@Override
+			public void sample( int seriesId, double x, double y ) {
+				assertEquals( next[seriesId], x, 0.0 );
+				assertEquals( seriesId, y, 0.0 );
+				++next[seriesId];
+			}
+		};
+
+		long total = 0;
+		while ( total < (long) producers * samples ) {
+			total += queue.drain( handler, 256 );
+		}
+		for ( Thread thread : threads ) {
+			thread.join();
+		}
+
+		assertEquals( 0, queue.drain( handler, 256 ) );
+		assertEquals( 0, queue.getDroppedCount() );
+		for ( double n : next ) {
+			assertEquals( samples, n, 0.0 );
+		}
+	}
+
+	@Test
+	public void testFeederTrimsBeforeAdding() {
+		SampleQueue queue = new SampleQueue( 64 );
+		SampleQueueFeeder feeder = new SampleQueueFeeder( queue );
+		XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+		feeder.addSeries( 0, series );
+		feeder.setMaxPointsPerSeries( 5 );
+
+		final List<Integer> added = new ArrayList<Integer>();
+		series.getData().addListener( new ListChangeListener<XYChart.Data<Number, Number>>() {
+			@Override
+			public void onChanged( Change<? extends XYChart.Data<Number, Number>> c ) {
+				while ( c.next() ) {
+					added.add( c.getAddedSize() );
+				}
+			}
+		} );
+
+		for ( int i = 0; i < 20; ++i ) {
+			queue.offer( 0, i, i );
+		}
+		assertEquals( 20, feeder.drain() );
+		//Only the newest samples are added, in one change with nothing to remove
+		assertEquals( Arrays.asList( 5 ), added );
+		assertEquals( 15, series.getData().get( 0 ).getXValue().intValue() );
+	}
+
+	@Test( expected = IllegalArgumentException.class )
+	public void testFeederRejectsZeroSamplesPerPulse() {
+		new SampleQueueFeeder( new SampleQueue( 4 ) ).setMaxSamplesPerPulse( 0 );
+	}
+}
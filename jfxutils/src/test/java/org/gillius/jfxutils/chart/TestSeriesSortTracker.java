@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestSeriesSortTracker
+ *
+ * @author Jason Winnebeck
+ */
+public class TestSeriesSortTracker {
+	private static XYChart.Data<Number, Number> point( double x ) {
+		return new XYChart.Data<Number, Number>( x, 0.0 );
+	}
+
+	@Test
+	public void testFollowsChanges() {
+		XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+		ObservableList<XYChart.Data<Number, Number>> data = series.getData();
+		data.addAll( Arrays.asList( point( 1 ), point( 2 ), point( 3 ) ) );
+
+		SeriesSortTracker.SeriesOrder<Number, Number> order =
+				new SeriesSortTracker.SeriesOrder<Number, Number>( series, null );
+		assertTrue( order.isSorted() );
+
+		data.add( point( 4 ) );
+		assertTrue( order.isSorted() );
+
+		data.add( 1, point( 5 ) );
+		assertFalse( order.isSorted() );
+
+		data.remove( 1 );
+		assertTrue( order.isSorted() );
+
+		data.add( point( Double.NaN ) );
+		assertFalse( order.isSorted() );
+
+		data.set( 4, point( 6 ) );
+		assertTrue( order.isSorted() );
+
+		//Rolling window: trim the oldest points and append
+		data.remove( 0, 2 );
+		data.addAll( Arrays.asList( point( 7 ), point( 8 ) ) );
+		assertTrue( order.isSorted() );
+
+		data.setAll( Arrays.asList( point( 3 ), point( 1 ), point( 2 ) ) );
+		assertFalse( order.isSorted() );
+
+		FXCollections.sort( data, new Comparator<XYChart.Data<Number, Number>>() {
+			@Override
+			public int compare( XYChart.Data<Number, Number> o1, XYChart.Data<Number, Number> o2 ) {
+				return Double.compare( o1.getXValue().doubleValue(), o2.getXValue().doubleValue() );
+			}
+		} );
+		assertTrue( order.isSorted() );
+
+		data.get( 0 ).setXValue( 10 );
+		order.invalidate();
+		assertFalse( order.isSorted() );
+
+		order.dispose();
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestSortedXYDataUtil
+ *
+ * @author Jason Winnebeck
+ */
+public class TestSortedXYDataUtil {
+	private static DoubleXYData create( double... xys ) {
+		DoubleXYData ret = new DoubleXYData();
+		for ( int i = 0; i < xys.length; i += 2 ) {
+			ret.add( xys[i], xys[i + 1] );
+		}
+		return ret;
+	}
+
+	@Test
+	public void testBounds() {
+		DoubleXYData data = create( 1, 0, 2, 0, 2, 0, 2, 0, 5, 0 );
+		assertEquals( 0, SortedXYDataUtil.lowerBound( data, 0.0 ) );
+		assertEquals( 1, SortedXYDataUtil.lowerBound( data, 2.0 ) );
+		assertEquals( 4, SortedXYDataUtil.upperBound( data, 2.0 ) );
+		assertEquals( 4, SortedXYDataUtil.lowerBound( data, 3.0 ) );
+		assertEquals( 5, SortedXYDataUtil.upperBound( data, 5.0 ) );
+		assertEquals( 5, SortedXYDataUtil.lowerBound( data, 6.0 ) );
+
+		DoubleXYData empty = new DoubleXYData();
+		assertEquals( 0, SortedXYDataUtil.lowerBound( empty, 1.0 ) );
+		assertEquals( 0, SortedXYDataUtil.upperBound( empty, 1.0 ) );
+	}
+
+	@Test
+	public void testSelect() {
+		//                           0     1     2     3     4     5     6
+		DoubleXYData data = create( 0, 5, 1, 5, 2, 9, 3, 5, 4, 5, 5, 0, 6, 5 );
+		IndexRangeSet selected = SortedXYDataUtil.select( data, 1.0, 6.0, 4.0, 6.0 );
+
+		assertEquals( 4, selected.cardinality() );
+		assertEquals( 3, selected.getRangeCount() );
+		assertEquals( 1, selected.getRangeStart( 0 ) );
+		assertEquals( 2, selected.getRangeEnd( 0 ) );
+		assertEquals( 3, selected.getRangeStart( 1 ) );
+		assertEquals( 5, selected.getRangeEnd( 1 ) );
+		assertEquals( 6, selected.getRangeStart( 2 ) );
+		assertEquals( 7, selected.getRangeEnd( 2 ) );
+
+		assertFalse( selected.contains( 0 ) );
+		assertTrue( selected.contains( 1 ) );
+		assertFalse( selected.contains( 2 ) );
+		assertTrue( selected.contains( 4 ) );
+		assertFalse( selected.contains( 5 ) );
+		assertTrue( selected.contains( 6 ) );
+
+		assertEquals( "{1, 3, 4, 6}", selected.toBitSet().toString() );
+	}
+
+	@Test
+	public void testSelectNothing() {
+		DoubleXYData data = create( 0, 5, 1, 5 );
+		assertTrue( SortedXYDataUtil.select( data, 2.0, 3.0, 0.0, 10.0 ).isEmpty() );
+		assertTrue( SortedXYDataUtil.select( data, 0.0, 1.0, 6.0, 10.0 ).isEmpty() );
+	}
+
+	@Test
+	public void testSelectUnsorted() {
+		//                       0     1     2     3     4     5
+		final double[] xs = {    5,    1,    3,    0,    4,    2 };
+		final double[] ys = {    5,    5,    5,    5,    9,    5 };
+		SortedXYData data = new SortedXYData() {
+			@Override
+			public int size() {
+				return xs.length;
+			}
+
+			@Override
+			public double getX( int index ) {
+				return xs[index];
+			}
+
+			@Override
+			public double getY( int index ) {
+				return ys[index];
+			}
+		};
+
+		assertFalse( SortedXYDataUtil.isSorted( data ) );
+		assertTrue( SortedXYDataUtil.isSorted( create( 0, 0, 1, 0, 1, 0 ) ) );
+
+		IndexRangeSet selected = SortedXYDataUtil.selectUnsorted( data, 1.0, 4.0, 4.0, 6.0 );
+		assertEquals( "{1, 2, 5}", selected.toBitSet().toString() );
+		assertEquals( 2, selected.getRangeCount() );
+	}
+
+	@Test( expected = IllegalArgumentException.class )
+	public void testUnsortedAdd() {
+		create( 1, 0, 0, 0 );
+	}
+}
@@ -18,6 +18,10 @@ package org.gillius.jfxutils.chart;
 
 import org.junit.*;
 
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 /**
@@ -50,4 +54,29 @@ public class TestStableTicksAxis {
 	public void testCalculateTickSpacingTiny() {
 		assertEquals( 5e-10, StableTicksAxis.calculateTickSpacing( 23e-10, 5 ), 0.001e-10 );
 	}
+
+	@Test
+	public void testCalculateTicksBeyondLongRange() {
+		List<Number> majorTicks = new ArrayList<Number>();
+		List<Number> minorTicks = new ArrayList<Number>();
+		StableTicksAxis.calculateTicks( 1e20, 1e20, 1.0, majorTicks, minorTicks );
+		assertEquals( 1e20, majorTicks.get( 0 ).doubleValue(), 0.0 );
+
+		majorTicks.clear();
+		StableTicksAxis.calculateTicks( -1e20, -1e20, 1.0, majorTicks, minorTicks );
+		assertEquals( -1e20, majorTicks.get( 0 ).doubleValue(), 0.0 );
+	}
+
+	@Test
+	public void testIsCacheable() {
+		assertTrue( StableTicksAxis.isCacheable( new DefaultAxisTickFormatter() ) );
+		assertTrue( StableTicksAxis.isCacheable( new FixedFormatTickFormatter( new DecimalFormat( "0.0" ) ) ) );
+		//A subclass may pick its format from the range in setRange
+		assertFalse( StableTicksAxis.isCacheable( new DefaultAxisTickFormatter() {
+		} ) );
+		assertTrue( StableTicksAxis.isCacheable( new CachedSubclass() ) );
+	}
+
+	private static class CachedSubclass extends DefaultAxisTickFormatter implements CacheableTickFormatter {
+	}
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import org.junit.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestViewportDataExporter
+ *
+ * @author Jason Winnebeck
+ */
+public class TestViewportDataExporter {
+	private static final String EMOJI = "\uD83D\uDE00";
+
+	private static DoubleXYData create( int count ) {
+		DoubleXYData ret = new DoubleXYData();
+		for ( int i = 0; i < count; ++i ) {
+			ret.add( i * 0.5, i * i - 3.25 );
+		}
+		return ret;
+	}
+
+	private static byte[] write( ViewportDataExporter.Format format, List<String> names,
+	                             List<SortedXYData> sources, int[] from, int[] to ) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long points = new ViewportDataExporter.DataWriter( Channels.newChannel( out ) )
+				.write( format, names, sources, from, to );
+		long expected = 0;
+		for ( int i = 0; i < from.length; ++i ) {
+			expected += to[i] - from[i];
+		}
+		assertEquals( expected, points );
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testCsv() throws IOException {
+		DoubleXYData a = create( 10 );
+		DoubleXYData b = create( 5000 );
+		List<String> names = Arrays.asList( "a," + EMOJI, "\u00E9" + EMOJI );
+		byte[] bytes = write( ViewportDataExporter.Format.Csv, names, Arrays.<SortedXYData>asList( a, b ),
+		                      new int[] { 2, 0 }, new int[] { 7, 5000 } );
+
+		String[] lines = new String( bytes, StandardCharsets.UTF_8 ).split( "\n" );
+		assertEquals( 1 + 5 + 5000, lines.length );
+		assertEquals( "series,x,y", lines[0] );
+		for ( int i = 0; i < 5; ++i ) {
+			assertEquals( "\"a," + EMOJI + "\"," + a.getX( i + 2 ) + "," + a.getY( i + 2 ), lines[1 + i] );
+		}
+		for ( int i = 0; i < 5000; ++i ) {
+			String[] fields = lines[6 + i].split( "," );
+			assertEquals( "\u00E9" + EMOJI, fields[0] );
+			assertEquals( b.getX( i ), Double.parseDouble( fields[1] ), 0.0 );
+			assertEquals( b.getY( i ), Double.parseDouble( fields[2] ), 0.0 );
+		}
+	}
+
+	@Test
+	public void testBinary() throws IOException {
+		DoubleXYData a = create( 10 );
+		DoubleXYData b = create( 20000 );
+		List<String> names = Arrays.asList( EMOJI, "b" );
+		ByteBuffer in = ByteBuffer.wrap( write( ViewportDataExporter.Format.Binary, names,
+		                                        Arrays.<SortedXYData>asList( a, b ),
+		                                        new int[] { 3, 0 }, new int[] { 3, 20000 } ) );
+
+		byte[] magic = new byte[4];
+		in.get( magic );
+		assertEquals( "JFXD", new String( magic, StandardCharsets.US_ASCII ) );
+		assertEquals( 1, in.getInt() );
+		assertEquals( 2, in.getInt() );
+
+		int[] from = { 3, 0 };
+		DoubleXYData[] sources = { a, b };
+		for ( int s = 0; s < 2; ++s ) {
+			byte[] name = new byte[in.getInt()];
+			in.get( name );
+			assertEquals( names.get( s ), new String( name, StandardCharsets.UTF_8 ) );
+			int count = in.getInt();
+			assertEquals( s == 0 ? 0 : 20000, count );
+			for ( int i = 0; i < count; ++i ) {
+				assertEquals( sources[s].getX( from[s] + i ), in.getDouble(), 0.0 );
+			}
+			for ( int i = 0; i < count; ++i ) {
+				assertEquals( sources[s].getY( from[s] + i ), in.getDouble(), 0.0 );
+			}
+		}
+		assertFalse( in.hasRemaining() );
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013 Jason Winnebeck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gillius.jfxutils.chart;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.chart.XYChart;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * TestViewportLimits
+ *
+ * @author Jason Winnebeck
+ */
+public class TestViewportLimits {
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	public void testExtentIndexFollowsSeries() {
+		XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+		series.getData().add( new XYChart.Data<Number, Number>( 0, 5 ) );
+		DataExtentIndex index = new DataExtentIndex();
+		assertTrue( index.isEmpty() );
+		index.addSeries( series );
+		assertEquals( 0.0, index.getMaxX(), EPSILON );
+
+		series.getData().add( new XYChart.Data<Number, Number>( 10, -5 ) );
+		series.getData().add( new XYChart.Data<Number, Number>( 4, 1 ) );
+		assertEquals( new Rectangle2D( 0, -5, 10, 10 ), index.getExtents() );
+
+		//Removing an inner point keeps the extent, removing an edge point shrinks it
+		series.getData().remove( 2 );
+		assertEquals( 10.0, index.getMaxX(), EPSILON );
+		series.getData().remove( 1 );
+		assertEquals( new Rectangle2D( 0, 5, 0, 0 ), index.getExtents() );
+
+		index.include( -20, 0 );
+		assertEquals( -20.0, index.getMinX(), EPSILON );
+
+		index.clear();
+		series.getData().add( new XYChart.Data<Number, Number>( 100, 100 ) );
+		assertTrue( index.isEmpty() );
+	}
+
+	@Test
+	public void testExtentIndexRollingWindow() {
+		XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+		for ( int i = 0; i < 10; ++i ) {
+			series.getData().add( new XYChart.Data<Number, Number>( i, i % 3 ) );
+		}
+		DataExtentIndex index = new DataExtentIndex();
+		index.addSeries( series );
+		assertEquals( 0.0, index.getMinX(), EPSILON );
+
+		//Trim the oldest point and append, keeping 10 points
+		for ( int i = 10; i < 20; ++i ) {
+			series.getData().remove( 0 );
+			series.getData().add( new XYChart.Data<Number, Number>( i, i % 3 ) );
+			Rectangle2D extents = index.getExtents();
+			assertEquals( i - 9, extents.getMinX(), EPSILON );
+			assertEquals( i, extents.getMaxX(), EPSILON );
+			assertEquals( 0.0, extents.getMinY(), EPSILON );
+			assertEquals( 2.0, extents.getMaxY(), EPSILON );
+		}
+
+		//An unsorted series is scanned again when an X edge point is removed
+		series.getData().add( 0, new XYChart.Data<Number, Number>( 100, 1 ) );
+		assertEquals( 100.0, index.getMaxX(), EPSILON );
+		series.getData().remove( 0 );
+		assertEquals( 19.0, index.getMaxX(), EPSILON );
+	}
+
+	@Test
+	public void testLimits() {
+		XYChart.Series<Number, Number> series = new XYChart.Series<Number, Number>();
+		series.getData().add( new XYChart.Data<Number, Number>( 0, 0 ) );
+		series.getData().add( new XYChart.Data<Number, Number>( 100, 10 ) );
+		DataExtentIndex index = new DataExtentIndex();
+		index.addSeries( series );
+
+		ViewportLimits limits = new ViewportLimits( index );
+		limits.setMargin( 0.1 );
+		limits.setXSpan( 1.0, 50.0 );
+
+		//Panned past the data: shifted back keeping the span
+		Rectangle2D limited = limits.limit( 100, 140, 2, 4 );
+		assertEquals( 70.0, limited.getMinX(), EPSILON );
+		assertEquals( 110.0, limited.getMaxX(), EPSILON );
+		assertEquals( 2.0, limited.getMinY(), EPSILON );
+		assertEquals( 4.0, limited.getMaxY(), EPSILON );
+
+		//Spans limited around the center, then a Y span wider than the data is centered on it
+		limited = limits.limit( 40, 40.5, -100, 100 );
+		assertEquals( 39.75, limited.getMinX(), EPSILON );
+		assertEquals( 40.75, limited.getMaxX(), EPSILON );
+		assertEquals( -95.0, limited.getMinY(), EPSILON );
+		assertEquals( 105.0, limited.getMaxY(), EPSILON );
+	}
+}